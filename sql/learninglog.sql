@@ -11,6 +11,9 @@ USE learning_logs;
 
 -- Drop existing tables for a clean install
 DROP TABLE IF EXISTS entries;
+DROP TABLE IF EXISTS topic_tombstones;
+DROP TABLE IF EXISTS topic_daily_counts;
+DROP TABLE IF EXISTS topic_id_sequence;
 DROP TABLE IF EXISTS topics;
 
 -- Topics table
@@ -21,6 +24,63 @@ CREATE TABLE topics (
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- Search indexes on topic names
+--   idx_topics_name → prefix search  (name LIKE 'jav%')
+--   ft_topics_name  → substring search (the ngram parser splits names
+--                     into 2-letter pieces, so 'ava' finds 'Java')
+CREATE INDEX idx_topics_name ON topics (name);
+ALTER TABLE topics ADD FULLTEXT INDEX ft_topics_name (name) WITH PARSER ngram;
+
+-- Change feed: "which topics changed since ...?" reads this index
+-- instead of the whole table (TopicDao.fetchTopicsChangedSince)
+CREATE INDEX idx_topics_updated ON topics (updated_at);
+
+-- Summaries: "topics per day" only reads the recent part of this index
+CREATE INDEX idx_topics_created ON topics (created_at);
+
+-- Summary table: topics created per day, kept up to date by the two
+-- triggers below, so totals and per-day charts read a few rows here
+-- instead of counting the topics table.
+--   Each day is split over 8 "slots" (topic id MOD 8). Inserts running
+--   at the same time then update different rows, instead of all
+--   waiting for the lock on today's single counter row.
+CREATE TABLE topic_daily_counts (
+  created_on DATE NOT NULL,
+  slot TINYINT NOT NULL,
+  topics INT NOT NULL,
+  PRIMARY KEY (created_on, slot)
+);
+
+CREATE TRIGGER trg_topics_count_insert AFTER INSERT ON topics FOR EACH ROW
+  INSERT INTO topic_daily_counts (created_on, slot, topics) VALUES (DATE(NEW.created_at), NEW.id MOD 8, 1)
+  ON DUPLICATE KEY UPDATE topics = topics + 1;
+
+CREATE TRIGGER trg_topics_count_delete AFTER DELETE ON topics FOR EACH ROW
+  UPDATE topic_daily_counts SET topics = topics - 1
+  WHERE created_on = DATE(OLD.created_at) AND slot = OLD.id MOD 8;
+
+-- Tombstones: one row per deleted topic, so terminals that cached the
+-- topic can learn that it is gone. No foreign key — the topic row no
+-- longer exists. Old tombstones may be purged once every terminal has
+-- synced past them (a terminal with an older copy simply reloads).
+CREATE TABLE topic_tombstones (
+  topic_id INT NOT NULL PRIMARY KEY,
+  deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_tombstones_deleted ON topic_tombstones (deleted_at);
+
+-- Id sequence for sharded topics (only used with learninglogs.db.shards):
+-- each shard's topics table holds only some of the topics, so ids can't
+-- come from its own AUTO_INCREMENT. TopicIdAllocator reserves blocks of
+-- ids from this row in the MAIN database instead.
+CREATE TABLE topic_id_sequence (
+  name VARCHAR(32) NOT NULL PRIMARY KEY,
+  next_id INT NOT NULL
+);
+
+INSERT INTO topic_id_sequence (name, next_id) VALUES ('topics', 1);
+
 -- Entries table (needed for Week 2 Workshop)
 CREATE TABLE entries (
   id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
@@ -30,3 +90,7 @@ CREATE TABLE entries (
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   FOREIGN KEY (topic_id) REFERENCES topics(id) ON DELETE CASCADE
 );
+
+-- Loading a topic's entries in date order reads this index directly
+-- (it also serves the foreign key lookups on topic_id)
+CREATE INDEX idx_entries_topic_created ON entries (topic_id, created_at);
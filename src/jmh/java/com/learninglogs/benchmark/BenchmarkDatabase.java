@@ -0,0 +1,62 @@
+package com.learninglogs.benchmark;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.dao.TopicDaoImpl;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.SchemaScript;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Points DatabaseConnection at an in-process H2 database (MySQL mode)
+ * built from sql/learninglog.sql, so benchmarks run without a server.
+ *
+ * Every JMH fork is a fresh JVM, so the system properties set here are
+ * in place before DatabaseConnection creates its pool.
+ */
+final class BenchmarkDatabase {
+
+    static final String URL = "jdbc:h2:mem:learning_logs_bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String USER = "sa";
+    static final String PASSWORD = "";
+
+    private static final int POPULATE_CHUNK = 10_000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Drop and re-create the tables, leaving an empty schema.
+     */
+    static void reset() throws SQLException {
+        System.setProperty("learninglogs.db.url", URL);
+        System.setProperty("learninglogs.db.user", USER);
+        System.setProperty("learninglogs.db.password", PASSWORD);
+
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            SchemaScript.apply(conn, SchemaScript.SCHEMA_FILE);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Fill the topics table with the given number of rows.
+     */
+    static void populate(int rows) {
+        TopicDao dao = new TopicDaoImpl();
+        List<Topic> chunk = new ArrayList<>(POPULATE_CHUNK);
+        for (int i = 0; i < rows; i++) {
+            chunk.add(new Topic("Topic " + i));
+            if (chunk.size() == POPULATE_CHUNK || i == rows - 1) {
+                dao.insertTopics(chunk);
+                chunk.clear();
+            }
+        }
+    }
+}
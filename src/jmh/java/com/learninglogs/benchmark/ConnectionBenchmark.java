@@ -0,0 +1,63 @@
+package com.learninglogs.benchmark;
+
+import com.learninglogs.utils.DatabaseConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting a connection: borrowing from the DatabaseConnection
+ * pool vs opening a fresh one with DriverManager every time.
+ *
+ * H2 opens in-process connections far faster than MySQL does over TCP,
+ * so the gap measured here is a lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionBenchmark {
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.reset();
+    }
+
+    @Benchmark
+    public Connection pooledAcquire() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        DatabaseConnection.closeConnection(conn);
+        return conn;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Connection pooledAcquireContended() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        DatabaseConnection.closeConnection(conn);
+        return conn;
+    }
+
+    @Benchmark
+    public Connection driverManagerAcquire() throws SQLException {
+        Connection conn = DriverManager.getConnection(
+                BenchmarkDatabase.URL, BenchmarkDatabase.USER, BenchmarkDatabase.PASSWORD);
+        conn.close();
+        return conn;
+    }
+}
@@ -0,0 +1,60 @@
+package com.learninglogs.benchmark;
+
+import com.learninglogs.dao.BatchResult;
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.dao.TopicDaoImpl;
+import com.learninglogs.entity.Topic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput in rows per second: one insertTopic() per row vs
+ * insertTopics() with a batch of BATCH rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int BATCH = 100;
+
+    private TopicDao topicDao;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.reset();
+        topicDao = new TopicDaoImpl();
+    }
+
+    @Benchmark
+    public boolean insertTopic() {
+        return topicDao.insertTopic(new Topic("Benchmark topic"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BatchResult insertTopics() {
+        List<Topic> topics = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            topics.add(new Topic("Benchmark topic " + i));
+        }
+        return topicDao.insertTopics(topics);
+    }
+}
@@ -0,0 +1,43 @@
+package com.learninglogs.benchmark;
+
+import com.learninglogs.entity.Topic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation cost of the Topic entity. Run with the gc profiler
+ * (enabled by the benchmark profile) to see bytes allocated per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopicBenchmark {
+
+    private final long now = System.currentTimeMillis();
+    private final Topic topic = new Topic(42, "Machine Learning", new Timestamp(now), new Timestamp(now));
+    private int id;
+
+    @Benchmark
+    public Topic construct() {
+        id++;
+        return new Topic(id, "Machine Learning", new Timestamp(now), new Timestamp(now));
+    }
+
+    @Benchmark
+    public String toStringCall() {
+        return topic.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.learninglogs.benchmark;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.dao.TopicDaoImpl;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency of the topic listing paths at different table sizes:
+ * fetchAllTopics() (builds a full list) vs fetchTopicTable() (packs the
+ * same rows into arrays) vs forEachTopic() (streams) vs one keyset page.
+ * Run with "-prof gc" (the profile default) to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TopicDaoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int tableSize;
+
+    private TopicDao topicDao;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.reset();
+        BenchmarkDatabase.populate(tableSize);
+        topicDao = new TopicDaoImpl();
+    }
+
+    @Benchmark
+    public ArrayList<Topic> fetchAllTopics() {
+        return topicDao.fetchAllTopics();
+    }
+
+    @Benchmark
+    public TopicTable fetchTopicTable() {
+        return topicDao.fetchTopicTable();
+    }
+
+    @Benchmark
+    public int forEachTopic(Blackhole blackhole) {
+        return topicDao.forEachTopic(blackhole::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ArrayList<Topic> fetchMiddlePage() {
+        return topicDao.fetchTopicsAfter(tableSize / 2, 10);
+    }
+}
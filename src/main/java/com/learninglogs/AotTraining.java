@@ -0,0 +1,44 @@
+package com.learninglogs;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * A scripted "training run" of the menu app, used by the fast-start
+ * profile in pom.xml to build the JVM's AOT cache.
+ *
+ * The JVM records every class this run loads (menu, DAOs, connection
+ * pool, the MySQL driver) and saves them, already parsed and linked, to
+ * target/learning-logs.aot. Later launches map that file in instead of
+ * loading the same classes from the jar again.
+ *
+ * The script only READS (browse, search, entries, stats, summary), so it
+ * is safe against a real database. Without a database server the
+ * queries fail, which is fine: the driver classes are loaded either way.
+ */
+public class AotTraining {
+
+    /** Menu input; "q" then "8" leaves any screen and then the app. */
+    private static final String SCRIPT = "2\nq\n3\njava\n5\n\n6\n\n7\n" + "q\n8\n".repeat(5);
+
+    public static void main(String[] args) {
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        long start = System.nanoTime();
+        try {
+            System.setIn(new ByteArrayInputStream(SCRIPT.getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            LearningLogs.main(new String[0]);
+        } catch (NoSuchElementException e) {
+            // The script ran out before the app exited; everything is loaded anyway
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        System.out.printf("AOT training run finished in %.0f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
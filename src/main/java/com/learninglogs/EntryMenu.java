@@ -0,0 +1,109 @@
+package com.learninglogs;
+
+import com.learninglogs.dao.EntryDao;
+import com.learninglogs.entity.Entry;
+import com.learninglogs.entity.Topic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Menu screens for entries: adding one, and listing topics with how
+ * many entries each has.
+ *
+ * The listing uses EntryDao.fetchTopicsWithEntryCounts() (one JOIN
+ * query) and, for "all", fetchEntriesForTopics() (one IN query) — never
+ * one query per topic.
+ */
+public class EntryMenu {
+
+    private final EntryDao entryDao;
+    private final Scanner scanner;
+
+    public EntryMenu(EntryDao entryDao, Scanner scanner) {
+        this.entryDao = entryDao;
+        this.scanner = scanner;
+    }
+
+    public void addEntry() {
+        System.out.print("Topic id: ");
+        int topicId = parseId(scanner.nextLine().trim());
+        if (topicId <= 0) {
+            System.out.println("⚠ Please enter a valid topic id.\n");
+            return;
+        }
+        System.out.print("Entry text: ");
+        String text = scanner.nextLine().trim();
+        if (text.isEmpty()) {
+            System.out.println("⚠ Entry text cannot be empty!\n");
+            return;
+        }
+
+        Entry entry = new Entry(topicId, text);
+        if (entryDao.insertEntry(entry)) {
+            System.out.println("✓ Entry added to topic " + topicId + "\n");
+        } else {
+            System.out.println("⚠ Failed to add entry.\n");
+        }
+    }
+
+    public void showTopicsWithEntries() {
+        Map<Topic, Integer> counts = entryDao.fetchTopicsWithEntryCounts();
+        if (counts.isEmpty()) {
+            System.out.println("No topics yet. Add your first topic!\n");
+            return;
+        }
+
+        System.out.println("\n── Topics & Entries ─────────────");
+        for (Map.Entry<Topic, Integer> row : counts.entrySet()) {
+            System.out.println("  " + row.getKey() + " — " + row.getValue() + " entr" + (row.getValue() == 1 ? "y" : "ies"));
+        }
+        System.out.println("─────────────────────────────────");
+        System.out.print("Topic id to read (\"all\" for every topic, Enter to go back): ");
+        String choice = scanner.nextLine().trim();
+
+        if (choice.isEmpty()) {
+            System.out.println();
+        } else if (choice.equalsIgnoreCase("all")) {
+            List<Integer> withEntries = new ArrayList<>();
+            Map<Integer, Topic> topicsById = new HashMap<>();
+            counts.forEach((topic, count) -> {
+                if (count > 0) {
+                    withEntries.add(topic.getId());
+                    topicsById.put(topic.getId(), topic);
+                }
+            });
+            entryDao.fetchEntriesForTopics(withEntries)
+                    .forEach((topicId, entries) -> printEntries(topicsById.get(topicId).getName(), entries));
+        } else {
+            int topicId = parseId(choice);
+            if (topicId <= 0) {
+                System.out.println("⚠ Please enter a valid topic id.\n");
+            } else {
+                printEntries("Topic " + topicId, entryDao.fetchEntriesByTopic(topicId));
+            }
+        }
+    }
+
+    private void printEntries(String title, List<Entry> entries) {
+        System.out.println("\n── " + title + " ──");
+        if (entries.isEmpty()) {
+            System.out.println("  (no entries)");
+        }
+        for (Entry entry : entries) {
+            System.out.println("  " + entry);
+        }
+        System.out.println();
+    }
+
+    private static int parseId(String input) {
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
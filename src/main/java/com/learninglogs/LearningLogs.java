@@ -1,24 +1,46 @@
 package com.learninglogs;
 
 import com.learninglogs.entity.Topic;
+import com.learninglogs.dao.CachingTopicDao;
+import com.learninglogs.dao.EmbeddedTopicDao;
+import com.learninglogs.dao.EntryDao;
+import com.learninglogs.dao.EntryDaoImpl;
+import com.learninglogs.dao.FaultInjectingTopicDao;
+import com.learninglogs.dao.InstrumentedEntryDao;
+import com.learninglogs.dao.InstrumentedTopicDao;
+import com.learninglogs.dao.ResilientTopicDao;
+import com.learninglogs.dao.ShardedTopicDao;
 import com.learninglogs.dao.TopicDao;
 import com.learninglogs.dao.TopicDaoImpl;
+import com.learninglogs.dao.WriteBehindTopicDao;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.Metrics;
 import java.util.ArrayList;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 /**
  * ╔══════════════════════════════════════════════════════╗
- * ║     Learning Logs Terminal — Main Menu                ║
+ * ║     Learning Logs Terminal — Main Menu               ║
  * ║                                                      ║
- * ║   This file is PROVIDED for you. No changes needed!  ║
- * ║   Study how it works — it calls YOUR code.           ║
+ * ║   Reads the settings, builds the DAO stack and runs  ║
+ * ║   the menu. Study how it works — it calls YOUR code. ║
  * ╚══════════════════════════════════════════════════════╝
  */
 public class LearningLogs {
 
+    private static final int SEARCH_LIMIT = AppConfig.getInt("learninglogs.search.limit", 20);
+
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
-        TopicDao topicDao = new TopicDaoImpl();
+        TopicDao backendDao = createBackend();
+        TopicDao topicDao = decorate(backendDao);
+        TopicBrowser topicBrowser = new TopicBrowser(topicDao, scanner);
+        EntryDao entryDao = createEntryDao(backendDao);
+        EntryMenu entryMenu = entryDao == null ? null : new EntryMenu(entryDao, scanner);
+        StatsMenu statsMenu = new StatsMenu(scanner);
+        SummaryMenu summaryMenu = new SummaryMenu(topicDao);
 
         System.out.println("╔══════════════════════════════════════════╗");
         System.out.println("║     Welcome to Learning Logs Terminal    ║");
@@ -26,60 +48,184 @@ public class LearningLogs {
         System.out.println("╚══════════════════════════════════════════╝");
         System.out.println();
 
-        boolean running = true;
-
-        while (running) {
-            System.out.println("┌──────────────────────────────┐");
-            System.out.println("│         MAIN MENU            │");
-            System.out.println("├──────────────────────────────┤");
-            System.out.println("│  1. Add a new Topic          │");
-            System.out.println("│  2. View all Topics          │");
-            System.out.println("│  3. Exit                     │");
-            System.out.println("└──────────────────────────────┘");
-            System.out.print("Choose an option (1-3): ");
-
-            String choice = scanner.nextLine().trim();
-
-            switch (choice) {
-                case "1" -> {
-                    System.out.print("Enter topic name: ");
-                    String name = scanner.nextLine().trim();
-
-                    if (name.isEmpty()) {
-                        System.out.println("⚠ Topic name cannot be empty!\n");
-                    } else {
-                        Topic topic = new Topic(name);
-                        boolean success = topicDao.insertTopic(topic);
-                        if (success) {
-                            System.out.println("✓ Topic added: " + name);
+        // Everything the menu needs is loaded; load the MySQL driver and
+        // log in on a background thread while the user reads the menu
+        if (usesMySql()) {
+            DatabaseConnection.warmUpInBackground();
+        }
+
+        // However the menu ends — Exit, or the input running out (Ctrl-D, the
+        // end of a piped file) — queued topics are saved and connections closed
+        try {
+            boolean running = true;
+
+            while (running) {
+                System.out.println("┌──────────────────────────────┐");
+                System.out.println("│         MAIN MENU            │");
+                System.out.println("├──────────────────────────────┤");
+                System.out.println("│  1. Add a new Topic          │");
+                System.out.println("│  2. View all Topics          │");
+                System.out.println("│  3. Search Topics            │");
+                System.out.println("│  4. Add an Entry             │");
+                System.out.println("│  5. Topics & Entries         │");
+                System.out.println("│  6. Stats                    │");
+                System.out.println("│  7. Summary                  │");
+                System.out.println("│  8. Exit                     │");
+                System.out.println("└──────────────────────────────┘");
+                System.out.print("Choose an option (1-8): ");
+
+                String choice = scanner.nextLine().trim();
+
+                switch (choice) {
+                    case "1" -> {
+                        System.out.print("Enter topic name: ");
+                        String name = scanner.nextLine().trim();
+
+                        if (name.isEmpty()) {
+                            System.out.println("⚠ Topic name cannot be empty!\n");
                         } else {
-                            System.out.println("⚠ Failed to add topic.\n");
+                            Topic topic = new Topic(name);
+                            boolean success = topicDao.insertTopic(topic);
+                            if (!success) {
+                                System.out.println("⚠ Failed to add topic.\n");
+                            } else if (topicDao instanceof WriteBehindTopicDao) {
+                                // Only queued: the writer thread saves it in its next batch
+                                System.out.println("✓ Topic queued: " + name + " (saved in the background)");
+                            } else {
+                                System.out.println("✓ Topic added: " + name);
+                            }
+                            System.out.println();
                         }
-                        System.out.println();
                     }
-                }
-                case "2" -> {
-                    ArrayList<Topic> topics = topicDao.fetchAllTopics();
-
-                    if (topics == null || topics.isEmpty()) {
-                        System.out.println("No topics yet. Add your first topic!\n");
-                    } else {
-                        System.out.println("\n── Your Topics ──────────────────");
-                        for (Topic topic : topics) {
-                            System.out.println("  " + topic);
+                    case "2" -> topicBrowser.browse();
+                    case "3" -> {
+                        System.out.print("Search for: ");
+                        String query = scanner.nextLine().trim();
+                        if (query.isEmpty()) {
+                            System.out.println("⚠ Search text cannot be empty!\n");
+                        } else {
+                            long start = System.nanoTime();
+                            ArrayList<Topic> results = topicDao.searchTopics(query, SEARCH_LIMIT);
+                            double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+                            if (results.isEmpty()) {
+                                System.out.println("No topics match \"" + query + "\".\n");
+                            } else {
+                                System.out.println("\n── Search Results ───────────────");
+                                for (Topic topic : results) {
+                                    System.out.println("  " + topic);
+                                }
+                                System.out.println("─────────────────────────────────");
+                                System.out.printf("  %d match(es) in %.2f ms%n%n", results.size(), millis);
+                            }
                         }
-                        System.out.println("─────────────────────────────────");
-                        System.out.println("  Total: " + topics.size() + " topic(s)\n");
                     }
+                    case "4", "5" -> {
+                        if (entryMenu == null) {
+                            System.out.println("⚠ Entries are not available when topics are sharded.\n");
+                        } else if (choice.equals("4")) {
+                            entryMenu.addEntry();
+                        } else {
+                            entryMenu.showTopicsWithEntries();
+                        }
+                    }
+                    case "6" -> statsMenu.show();
+                    case "7" -> summaryMenu.show();
+                    case "8" -> {
+                        // Make sure topics still queued in the background are saved
+                        topicDao.flush();
+                        running = false;
+                        System.out.println("\nHappy Learning! See you next time.\n");
+                    }
+                    default -> System.out.println("Invalid option. Please choose 1-8.\n");
                 }
-                case "3" -> {
-                    running = false;
-                    System.out.println("\nHappy Learning! See you next time.\n");
-                }
-                default -> System.out.println("Invalid option. Please choose 1-3.\n");
             }
+        } catch (NoSuchElementException e) {
+            System.out.println("\nInput ended — saving and exiting.\n");
+        } finally {
+            scanner.close();
+            topicDao.close();
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    /**
+     * Pick the storage backend from "learninglogs.backend":
+     *   mysql    → TopicDaoImpl, talks to the MySQL server (default)
+     *   embedded → EmbeddedTopicDao, a local file — no server needed
+     * (or ShardedTopicDao over several of them, if shards are configured),
+     * wrap it with timing (InstrumentedTopicDao, unless metrics are off),
+     * and optionally put the in-memory cache and the background write
+     * queue in front of it.
+     */
+    static TopicDao createTopicDao() {
+        return decorate(createBackend());
+    }
+
+    private static TopicDao createBackend() {
+        String backend = backend();
+        // Several databases, each holding part of the topics?
+        if (ShardedTopicDao.isConfigured(backend)) {
+            return ShardedTopicDao.fromConfig(backend);
+        }
+        return switch (backend) {
+            case "embedded" -> EmbeddedTopicDao.fromConfig();
+            case "mysql" -> new TopicDaoImpl();
+            default -> {
+                System.out.println("Unknown backend '" + backend + "', using mysql.");
+                yield new TopicDaoImpl();
+            }
+        };
+    }
+
+    /**
+     * Wrap the storage backend in the optional layers, innermost first.
+     */
+    private static TopicDao decorate(TopicDao topicDao) {
+        // Break the backend on purpose, to try out the resilience settings offline
+        if (AppConfig.getBoolean("learninglogs.faults.enabled", false)) {
+            topicDao = FaultInjectingTopicDao.fromConfig(topicDao);
+        }
+        // Time the backend itself, so cache hits don't hide slow queries
+        if (Metrics.isEnabled()) {
+            topicDao = new InstrumentedTopicDao(topicDao);
+        }
+        // Retry hiccups and fail fast during outages; the cache sits above,
+        // so its snapshot keeps working while the breaker is open
+        if (AppConfig.getBoolean("learninglogs.resilience.enabled", true)) {
+            topicDao = ResilientTopicDao.fromConfig(topicDao);
         }
+        if (AppConfig.getBoolean("learninglogs.cache.enabled", false)) {
+            topicDao = CachingTopicDao.fromConfig(topicDao);
+        }
+        if (AppConfig.getBoolean("learninglogs.writeBehind.enabled", false)) {
+            topicDao = WriteBehindTopicDao.fromConfig(topicDao);
+        }
+        return topicDao;
+    }
+
+    /**
+     * Entries are kept where their topics are: in the embedded store's
+     * log, or in the MySQL entries table. With sharding the topics are
+     * spread over several databases, so there is no entry store (null).
+     */
+    static EntryDao createEntryDao(TopicDao backendDao) {
+        EntryDao entryDao;
+        if (backendDao instanceof EmbeddedTopicDao embedded) {
+            entryDao = embedded.entries();
+        } else if (backendDao instanceof TopicDaoImpl) {
+            entryDao = new EntryDaoImpl();
+        } else {
+            return null;
+        }
+        return Metrics.isEnabled() ? new InstrumentedEntryDao(entryDao) : entryDao;
+    }
+
+    private static String backend() {
+        return AppConfig.getString("learninglogs.backend", "mysql");
+    }
 
-        scanner.close();
+    private static boolean usesMySql() {
+        return !backend().equals("embedded");
     }
 }
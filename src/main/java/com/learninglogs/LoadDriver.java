@@ -0,0 +1,330 @@
+package com.learninglogs;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.LatencyHistogram;
+import com.learninglogs.utils.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Headless load test: many "users" hitting the TopicDao at once.
+ *
+ * LearningLogs serves one person at a keyboard. To see how the DAO and
+ * the connection pool behave with many users, this starts one virtual
+ * thread per session (thousands are cheap) and lets them all run
+ * commands at the same time, then prints throughput, p50/p99 latency
+ * and error rates per command.
+ *
+ * Run it with:
+ *   mvn compile exec:java -Dexec.mainClass="com.learninglogs.LoadDriver"
+ *   mvn compile exec:java -Dexec.mainClass="com.learninglogs.LoadDriver" -Dexec.args="load.txt"
+ *
+ * Without a file, every session runs "learninglogs.load.ops" random
+ * commands picked by "learninglogs.load.mix" (weights, e.g.
+ * "insert:10,page:50,search:30,all:0,table:0").
+ *
+ * With a file, every session runs the file's commands in order
+ * ("learninglogs.load.repeat" times). One command per line:
+ *
+ *   insert Topic ${session}-${op}   → insertTopic (placeholders are filled in)
+ *   page 0 20                       → fetchTopicsAfter(0, 20)
+ *   search java                     → searchTopics("java", learninglogs.search.limit)
+ *   all                             → forEachTopic (the "view all" listing)
+ *   table                           → fetchTopicTable
+ *   stream                          → streamTopics
+ *   think 50                        → pause 50 ms (a user reading the screen)
+ *   # comment
+ *
+ * Other settings: learninglogs.load.sessions (default 1000),
+ * learninglogs.load.thinkMs (pause between random commands, default 0),
+ * learninglogs.load.report (also save the Metrics as JSON/Prometheus there).
+ * The DAO stack (backend, cache, write-behind) is the same one the menu
+ * app uses, so all the usual settings apply.
+ */
+public class LoadDriver {
+
+    private static final int SEARCH_LIMIT = AppConfig.getInt("learninglogs.search.limit", 20);
+    private static final List<String> COMMANDS = List.of("insert", "page", "search", "all", "table", "stream");
+    private static final String[] SEARCH_TERMS = AppConfig.getString(
+            "learninglogs.load.searchTerms", "java,sql,topic,learn,data,py").split(",");
+
+    private final TopicDao topicDao;
+    private final Map<String, LatencyHistogram> latency = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LongAdder totalErrors = new LongAdder();
+    /** Sessions that stopped with an exception before running all their commands. */
+    private final List<Throwable> failedSessions = new ArrayList<>();
+    /** Highest topic id seen so far, so random pages land on real rows. */
+    private final AtomicInteger maxKnownId = new AtomicInteger();
+
+    public LoadDriver(TopicDao topicDao) {
+        this.topicDao = topicDao;
+        for (String command : COMMANDS) {
+            latency.put(command, new LatencyHistogram());
+            errors.put(command, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = AppConfig.getInt("learninglogs.load.sessions", 1000);
+        List<String> script = args.length > 0 ? readScript(Path.of(args[0])) : null;
+
+        TopicDao topicDao = LearningLogs.createTopicDao();
+        LoadDriver driver = new LoadDriver(topicDao);
+        try {
+            long elapsedNanos = driver.run(sessions, script);
+            driver.printReport(sessions, elapsedNanos);
+
+            String report = AppConfig.getString("learninglogs.load.report", "");
+            if (!report.isEmpty()) {
+                System.out.println("Metrics saved to " + Metrics.writeTo(Path.of(report)).toAbsolutePath());
+            }
+        } finally {
+            topicDao.close();
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    /**
+     * Start all sessions together and wait for the last one.
+     *
+     * @param script commands to run per session, or null for a random mix
+     * @return wall-clock time of the whole run, in nanoseconds
+     */
+    public long run(int sessions, List<String> script) throws InterruptedException {
+        int ops = AppConfig.getInt("learninglogs.load.ops", 20);
+        int repeat = AppConfig.getInt("learninglogs.load.repeat", 1);
+        long thinkMillis = AppConfig.getLong("learninglogs.load.thinkMs", 0);
+        String[] mix = weightedMix(AppConfig.getString("learninglogs.load.mix",
+                "insert:10,page:50,search:30,all:0,table:0"));
+
+        maxKnownId.set(highestId());
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>(sessions);
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < sessions; s++) {
+                int session = s;
+                running.add(executor.submit(() -> {
+                    startGate.await();
+                    if (script != null) {
+                        for (int r = 0; r < repeat; r++) {
+                            for (int op = 0; op < script.size(); op++) {
+                                execute(fill(script.get(op), session, r * script.size() + op));
+                            }
+                        }
+                    } else {
+                        for (int op = 0; op < ops; op++) {
+                            execute(randomCommand(mix, session, op));
+                            if (thinkMillis > 0) {
+                                Thread.sleep(thinkMillis);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start = System.nanoTime();
+            startGate.countDown();
+        } // close() waits for every session to finish
+        long elapsed = System.nanoTime() - start;
+        for (Future<?> session : running) {
+            if (session.state() == Future.State.FAILED) {
+                failedSessions.add(session.exceptionNow());
+            }
+        }
+        return elapsed;
+    }
+
+    /**
+     * Run one command line and record how long it took.
+     *
+     * The DAOs catch their own SQLExceptions and return an empty result
+     * or false, so a command also counts as an error when it reported a
+     * failure through DatabaseConnection.reportFailure().
+     */
+    void execute(String line) throws InterruptedException {
+        String[] parts = line.trim().split("\\s+", 2);
+        String command = parts[0].toLowerCase();
+        String argument = parts.length > 1 ? parts[1] : "";
+        if (command.equals("think")) {
+            Thread.sleep(Long.parseLong(argument));
+            return;
+        }
+        LatencyHistogram histogram = latency.get(command);
+        if (histogram == null) {
+            throw new IllegalArgumentException("Unknown load command: " + line);
+        }
+
+        DatabaseConnection.takeFailure();
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            ok = switch (command) {
+                case "insert" -> insert(argument);
+                case "page" -> page(argument);
+                case "search" -> !argument.isEmpty() && topicDao.searchTopics(argument, SEARCH_LIMIT) != null;
+                case "all" -> topicDao.forEachTopic(topic -> { }) >= 0;
+                case "table" -> topicDao.fetchTopicTable() != null;
+                default -> stream();
+            };
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        long nanos = System.nanoTime() - started;
+        if (DatabaseConnection.takeFailure() != null) {
+            ok = false;
+        }
+        histogram.record(nanos);
+        total.record(nanos);
+        if (!ok) {
+            errors.get(command).increment();
+            totalErrors.increment();
+        }
+    }
+
+    public void printReport(int sessions, long elapsedNanos) {
+        long calls = total.getCount();
+        double seconds = elapsedNanos / 1e9;
+        System.out.println("\n── Load test ─────────────────────────────────────────────────────");
+        System.out.printf("  %d sessions, %d commands in %.2f s → %.0f ops/s%n",
+                sessions, calls, seconds, seconds == 0 ? 0 : calls / seconds);
+        System.out.printf("  %-8s %9s %8s %7s %9s %9s %9s%n",
+                "command", "calls", "errors", "err %", "p50 ms", "p99 ms", "max ms");
+        latency.forEach((command, h) -> {
+            if (h.getCount() > 0) {
+                printRow(command, h, errors.get(command).sum());
+            }
+        });
+        printRow("total", total, totalErrors.sum());
+        if (!failedSessions.isEmpty()) {
+            System.out.printf("  ⚠ %d session(s) stopped early, first because of: %s%n",
+                    failedSessions.size(), failedSessions.get(0));
+        }
+        System.out.println();
+        System.out.println("  pool: " + DatabaseConnection.getPoolStats());
+        System.out.println("──────────────────────────────────────────────────────────────────");
+    }
+
+    private static void printRow(String name, LatencyHistogram h, long failed) {
+        System.out.printf("  %-8s %9d %8d %6.2f%% %9.2f %9.2f %9.2f%n",
+                name, h.getCount(), failed, h.getCount() == 0 ? 0 : 100.0 * failed / h.getCount(),
+                h.percentileMillis(0.50), h.percentileMillis(0.99), h.getMaxNanos() / 1_000_000.0);
+    }
+
+    private boolean insert(String name) {
+        Topic topic = new Topic(name);
+        boolean ok = topicDao.insertTopic(topic);
+        if (ok) {
+            maxKnownId.accumulateAndGet(topic.getId(), Math::max);
+        }
+        return ok;
+    }
+
+    private boolean page(String argument) {
+        String[] numbers = argument.split("\\s+");
+        int lastId = numbers[0].isEmpty() ? 0 : Integer.parseInt(numbers[0]);
+        int limit = numbers.length > 1 ? Integer.parseInt(numbers[1]) : 10;
+        topicDao.fetchTopicsAfter(lastId, limit);
+        return true;
+    }
+
+    private boolean stream() {
+        try (Stream<Topic> topics = topicDao.streamTopics()) {
+            topics.forEach(topic -> { });
+        }
+        return true;
+    }
+
+    private String randomCommand(String[] mix, int session, int op) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String command = mix[random.nextInt(mix.length)];
+        return switch (command) {
+            case "insert" -> "insert Load topic " + session + "-" + op;
+            case "page" -> "page " + random.nextInt(Math.max(1, maxKnownId.get())) + " 10";
+            case "search" -> "search " + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].trim();
+            default -> command;
+        };
+    }
+
+    /**
+     * Find the highest topic id with a few one-row keyset probes:
+     * double the guess until nothing is after it, then binary search.
+     */
+    private int highestId() {
+        int low = 0;
+        int high = 1;
+        while (!topicDao.fetchTopicsAfter(high, 1).isEmpty()) {
+            low = high;
+            high = high >= Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : high * 2;
+        }
+        // Invariant: something exists after "low", nothing after "high"
+        while (high - low > 1) {
+            int mid = low + (high - low) / 2;
+            if (topicDao.fetchTopicsAfter(mid, 1).isEmpty()) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        ArrayList<Topic> last = topicDao.fetchTopicsAfter(low, 1);
+        return last.isEmpty() ? 0 : last.get(0).getId();
+    }
+
+    /**
+     * "insert:10,page:50" → a 60-slot array with 10 "insert" and 50 "page",
+     * so picking a random slot honours the weights.
+     */
+    private static String[] weightedMix(String spec) {
+        List<String> slots = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                slots.add(pair[0].trim());
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("learninglogs.load.mix has no commands: " + spec);
+        }
+        return slots.toArray(new String[0]);
+    }
+
+    private static String fill(String line, int session, int op) {
+        return line.replace("${session}", Integer.toString(session)).replace("${op}", Integer.toString(op));
+    }
+
+    private static List<String> readScript(Path file) throws IOException {
+        List<String> commands = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String command = trimmed.split("\\s+", 2)[0].toLowerCase();
+            if (!COMMANDS.contains(command) && !command.equals("think")) {
+                throw new IllegalArgumentException(file + ": unknown command \"" + trimmed + "\"");
+            }
+            commands.add(trimmed);
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,106 @@
+package com.learninglogs;
+
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.LatencyHistogram;
+import com.learninglogs.utils.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * The "Stats" screen: what the app has been spending its time on.
+ *
+ * Shows, per operation, how often it ran, its latency (average, p50,
+ * p95, p99, max), rows and errors; then the connection pool gauges and
+ * the most recent slow calls. From here the same numbers can be saved
+ * as JSON or Prometheus text into "learninglogs.metrics.dir" (default
+ * "data").
+ */
+public class StatsMenu {
+
+    private static final int SLOW_SHOWN = 10;
+
+    private final Scanner scanner;
+    private final Path dumpDir = Path.of(AppConfig.getString("learninglogs.metrics.dir", "data"));
+
+    public StatsMenu(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public void show() {
+        if (!Metrics.isEnabled()) {
+            System.out.println("⚠ Metrics are turned off (learninglogs.metrics.enabled=false).\n");
+            return;
+        }
+
+        printOperations();
+        printGauges();
+        printSlowQueries();
+
+        System.out.print("j = save JSON, p = save Prometheus, r = reset, Enter = back: ");
+        String choice = scanner.nextLine().trim().toLowerCase();
+        switch (choice) {
+            case "j" -> save(dumpDir.resolve("metrics.json"));
+            case "p" -> save(dumpDir.resolve("metrics.prom"));
+            case "r" -> {
+                Metrics.reset();
+                System.out.println("✓ Stats cleared.\n");
+            }
+            default -> System.out.println();
+        }
+    }
+
+    private void printOperations() {
+        List<String> ops = Metrics.getOperations();
+        System.out.println("\n── Stats ─────────────────────────────────────────────────────────────────────────────");
+        if (ops.isEmpty()) {
+            System.out.println("  Nothing recorded yet.");
+        } else {
+            System.out.printf("  %-34s %7s %8s %8s %8s %8s %9s %8s %6s%n",
+                    "operation", "calls", "avg ms", "p50", "p95", "p99", "max", "rows", "errors");
+            Map<String, LatencyHistogram> timers = Metrics.getTimers();
+            for (String op : ops) {
+                LatencyHistogram h = timers.get(op);
+                if (h == null) {
+                    System.out.printf("  %-34s %7d %8s %8s %8s %8s %9s %8d %6d%n",
+                            op, 0, "-", "-", "-", "-", "-", Metrics.getRows(op), Metrics.getErrors(op));
+                } else {
+                    System.out.printf("  %-34s %7d %8.2f %8.2f %8.2f %8.2f %9.2f %8d %6d%n",
+                            op, h.getCount(), h.getAverageMillis(),
+                            h.percentileMillis(0.50), h.percentileMillis(0.95), h.percentileMillis(0.99),
+                            h.getMaxNanos() / 1_000_000.0, Metrics.getRows(op), Metrics.getErrors(op));
+                }
+            }
+        }
+    }
+
+    private void printGauges() {
+        Map<String, Long> gauges = Metrics.getGauges();
+        if (!gauges.isEmpty()) {
+            System.out.println();
+            gauges.forEach((name, value) -> System.out.printf("  %-34s %d%n", name, value));
+        }
+    }
+
+    private void printSlowQueries() {
+        List<Metrics.SlowQuery> slow = Metrics.getSlowQueries();
+        System.out.println("\n  Slow calls (over " + Metrics.getSlowQueryThresholdMillis() + " ms): "
+                + (slow.isEmpty() ? "none" : ""));
+        for (Metrics.SlowQuery entry : slow.subList(0, Math.min(SLOW_SHOWN, slow.size()))) {
+            System.out.println("    " + entry);
+        }
+        System.out.println("──────────────────────────────────────────────────────────────────────────────────────");
+    }
+
+    private void save(Path file) {
+        try {
+            Metrics.writeTo(file);
+            System.out.println("✓ Saved " + file.toAbsolutePath() + "\n");
+        } catch (IOException e) {
+            System.out.println("Error saving stats: " + e.getMessage() + "\n");
+        }
+    }
+}
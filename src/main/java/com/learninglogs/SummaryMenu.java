@@ -0,0 +1,87 @@
+package com.learninglogs;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.AppConfig;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The "Summary" screen: how many topics there are and how the
+ * collection has been growing.
+ *
+ *   - total number of topics
+ *   - topics created per day ("learninglogs.summary.days", default 14)
+ *   - topics created per week ("learninglogs.summary.weeks", default 8)
+ *   - the most recently updated topics ("learninglogs.summary.recent", default 5)
+ *
+ * Every number comes from an aggregate query (TopicDao.countTopics()
+ * and friends), never from loading the topics, so this screen is just
+ * as quick on a huge table as on an empty one.
+ */
+public class SummaryMenu {
+
+    private static final int DAYS = Math.max(1, AppConfig.getInt("learninglogs.summary.days", 14));
+    private static final int WEEKS = Math.max(1, AppConfig.getInt("learninglogs.summary.weeks", 8));
+    private static final int RECENT = Math.max(0, AppConfig.getInt("learninglogs.summary.recent", 5));
+    private static final int BAR_WIDTH = 30;
+
+    private final TopicDao topicDao;
+
+    public SummaryMenu(TopicDao topicDao) {
+        this.topicDao = topicDao;
+    }
+
+    public void show() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        long total = topicDao.countTopics();
+        Map<LocalDate, Long> perDay = topicDao.countTopicsCreatedPerDay(today.minusDays(DAYS - 1));
+        Map<LocalDate, Long> perWeek = topicDao.countTopicsCreatedPerWeek(today.minusWeeks(WEEKS - 1));
+        List<Topic> recent = topicDao.fetchRecentlyUpdatedTopics(RECENT);
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.println("\n── Summary ──────────────────────────────────────");
+        System.out.println("  Total: " + total + " topic(s)");
+
+        System.out.println("\n  Created per day (last " + DAYS + " days)");
+        printBars(perDay, today.minusDays(DAYS - 1), DAYS, 1);
+
+        System.out.println("\n  Created per week (last " + WEEKS + " weeks, by Monday)");
+        LocalDate firstWeek = today.minusWeeks(WEEKS - 1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        printBars(perWeek, firstWeek, WEEKS, 7);
+
+        if (RECENT > 0) {
+            System.out.println("\n  Recently updated");
+            if (recent.isEmpty()) {
+                System.out.println("    (no topics yet)");
+            }
+            for (Topic topic : recent) {
+                System.out.println("    " + topic.getUpdatedAt() + "  " + topic.getName());
+            }
+        }
+        System.out.println("─────────────────────────────────────────────────");
+        System.out.printf("  Built in %.2f ms%n%n", millis);
+    }
+
+    /**
+     * One line per day (or week), including the empty ones, with a bar
+     * scaled to the busiest line.
+     */
+    private static void printBars(Map<LocalDate, Long> counts, LocalDate first, int lines, int stepDays) {
+        long max = 1;
+        for (long count : counts.values()) {
+            max = Math.max(max, count);
+        }
+        for (int i = 0; i < lines; i++) {
+            LocalDate day = first.plusDays((long) i * stepDays);
+            long count = counts.getOrDefault(day, 0L);
+            int width = (int) Math.ceil((double) count * BAR_WIDTH / max);
+            System.out.printf("    %s  %-" + BAR_WIDTH + "s %d%n", day, "█".repeat(width), count);
+        }
+    }
+}
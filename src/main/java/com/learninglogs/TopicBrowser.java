@@ -0,0 +1,189 @@
+package com.learninglogs;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.AppConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Page-at-a-time topic viewer for the "View all Topics" menu option.
+ *
+ * Pages are fetched with keyset pagination (TopicDao.fetchTopicTableAfter),
+ * so each page costs the same no matter how big the table is. A page is
+ * a TopicTable, printed through its reused Row view — a few arrays per
+ * page instead of a Topic and a name String per row.
+ *
+ * To go back, or jump to a page we have already seen, the browser
+ * remembers the last id before each page it has visited:
+ *
+ *   anchors = [0, 10, 20, 35]
+ *              │   │   │   └── page 4 starts after id 35
+ *              │   │   └────── page 3 starts after id 20
+ *              │   └────────── page 2 starts after id 10
+ *              └────────────── page 1 starts at the beginning
+ */
+public class TopicBrowser {
+
+    private static final int PAGE_SIZE = Math.max(1, AppConfig.getInt("learninglogs.page.size", 10));
+
+    private final TopicDao topicDao;
+    private final Scanner scanner;
+    private final List<Integer> anchors = new ArrayList<>();
+    private boolean lastPageReached;
+
+    public TopicBrowser(TopicDao topicDao, Scanner scanner) {
+        this.topicDao = topicDao;
+        this.scanner = scanner;
+    }
+
+    /**
+     * Show the first page, then let the user move around until they quit.
+     */
+    public void browse() {
+        anchors.clear();
+        anchors.add(0);
+        lastPageReached = false;
+
+        int page = 0;
+        TopicTable topics = loadPage(page);
+        if (topics.isEmpty()) {
+            System.out.println("No topics yet. Add your first topic!\n");
+            return;
+        }
+
+        while (true) {
+            printPage(page, topics);
+            System.out.print("[n]ext  [p]revious  [g]o to page  [d]elete  [a]ll  [q]uit: ");
+            String command = scanner.nextLine().trim().toLowerCase();
+
+            switch (command) {
+                case "n" -> {
+                    TopicTable next = topics.size() < PAGE_SIZE ? new TopicTable() : loadPage(page + 1);
+                    if (next.isEmpty()) {
+                        System.out.println("You are on the last page.\n");
+                    } else {
+                        page++;
+                        topics = next;
+                    }
+                }
+                case "p" -> {
+                    if (page == 0) {
+                        System.out.println("You are on the first page.\n");
+                    } else {
+                        page--;
+                        topics = loadPage(page);
+                    }
+                }
+                case "g" -> {
+                    System.out.print("Page number: ");
+                    int target = parsePage(scanner.nextLine().trim());
+                    if (target < 0) {
+                        System.out.println("Please enter a page number of 1 or more.\n");
+                        break;
+                    }
+                    TopicTable found = jumpTo(target);
+                    if (found.isEmpty()) {
+                        System.out.println("Page " + (target + 1) + " does not exist.\n");
+                    } else {
+                        page = target;
+                        topics = found;
+                    }
+                }
+                case "d" -> {
+                    System.out.print("Topic id to delete: ");
+                    int id = parseId(scanner.nextLine().trim());
+                    if (id <= 0) {
+                        System.out.println("Please enter a topic id.\n");
+                    } else if (topicDao.deleteTopic(id)) {
+                        System.out.println("✓ Topic " + id + " deleted (with its entries).\n");
+                        topics = loadPage(page);
+                        if (topics.isEmpty() && page > 0) {
+                            page--;
+                            topics = loadPage(page);
+                        }
+                        if (topics.isEmpty()) {
+                            System.out.println("No topics left.\n");
+                            return;
+                        }
+                    } else {
+                        System.out.println("✗ No topic with id " + id + ".\n");
+                    }
+                }
+                case "a" -> {
+                    printAll();
+                    return;
+                }
+                case "q", "" -> {
+                    System.out.println();
+                    return;
+                }
+                default -> System.out.println("Invalid option.\n");
+            }
+        }
+    }
+
+    /**
+     * Fetch a page whose starting anchor is already known, and remember
+     * where the following page starts.
+     */
+    private TopicTable loadPage(int page) {
+        TopicTable topics = topicDao.fetchTopicTableAfter(anchors.get(page), PAGE_SIZE);
+        if (topics.size() < PAGE_SIZE) {
+            lastPageReached = true;
+        }
+        if (!topics.isEmpty() && anchors.size() == page + 1) {
+            anchors.add(topics.getId(topics.size() - 1));
+        }
+        return topics;
+    }
+
+    /**
+     * Jump to any page. Pages we have seen are fetched directly; pages
+     * beyond that are reached by walking forward one page at a time.
+     */
+    private TopicTable jumpTo(int target) {
+        while (anchors.size() <= target) {
+            if (lastPageReached || loadPage(anchors.size() - 1).isEmpty()) {
+                return new TopicTable();
+            }
+        }
+        return loadPage(target);
+    }
+
+    private void printPage(int page, TopicTable topics) {
+        System.out.println("\n── Your Topics — page " + (page + 1) + " ──────────");
+        for (TopicTable.Row row : topics) {
+            System.out.println("  " + row);
+        }
+        System.out.println("─────────────────────────────────");
+    }
+
+    /**
+     * Print every topic as it streams in, counting along the way.
+     */
+    private void printAll() {
+        System.out.println("\n── Your Topics ──────────────────");
+        int total = topicDao.forEachTopic(topic -> System.out.println("  " + topic));
+        System.out.println("─────────────────────────────────");
+        System.out.println("  Total: " + total + " topic(s)\n");
+    }
+
+    private static int parseId(String input) {
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int parsePage(String input) {
+        try {
+            return Integer.parseInt(input) - 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.learninglogs;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.io.TopicExporter;
+import com.learninglogs.io.TopicImporter;
+import com.learninglogs.utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Import / export topics from the command line — no phpMyAdmin, no
+ * hand-edited SQL.
+ *
+ *   mvn compile exec:java -Dexec.mainClass="com.learninglogs.TopicTransfer" -Dexec.args="export topics.csv"
+ *   mvn compile exec:java -Dexec.mainClass="com.learninglogs.TopicTransfer" -Dexec.args="import topics.ndjson"
+ *
+ * The file type comes from the extension (.csv or .ndjson), see
+ * io.TopicFormat. Uses the same backend settings as the menu app.
+ */
+public class TopicTransfer {
+
+    public static void main(String[] args) {
+        if (args.length != 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.out.println("Usage: TopicTransfer import|export <file.csv|file.ndjson>");
+            return;
+        }
+        Path file = Path.of(args[1]);
+        TopicDao topicDao = LearningLogs.createTopicDao();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            if (args[0].equals("export")) {
+                long count = TopicExporter.export(topicDao, file);
+                System.out.printf("✓ Exported %d topic(s) to %s in %.2f s%n", count, file, seconds(start));
+            } else {
+                TopicImporter.ImportResult result = TopicImporter.fromConfig(topicDao).importFile(file);
+                topicDao.flush();
+                System.out.printf("✓ %s in %.2f s%n", result, seconds(start));
+                for (String error : result.getErrors()) {
+                    System.out.println("  ⚠ " + error);
+                }
+                if (result.getFailed() > result.getErrors().size()) {
+                    System.out.println("  ... and " + (result.getFailed() - result.getErrors().size()) + " more");
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error during " + args[0] + ": " + e.getMessage());
+            failed = true;
+        } finally {
+            topicDao.close();
+            DatabaseConnection.shutdown();
+        }
+        if (failed) {
+            // A non-zero exit code, so scripts don't carry on with a missing file
+            System.exit(1);
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,90 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a bulk insert, row by row.
+ *
+ * A bulk insert either succeeds completely (every Topic now has its
+ * generated id) or, when some rows are rejected, reports exactly which
+ * rows failed and why — the rest are still inserted.
+ */
+public class BatchResult {
+
+    private final int requested;
+    private int inserted;
+    private final List<Failure> failures = new ArrayList<>();
+
+    public BatchResult(int requested) {
+        this.requested = requested;
+    }
+
+    void recordInserted(int count) {
+        inserted += count;
+    }
+
+    void recordFailure(int index, Topic topic, String message) {
+        failures.add(new Failure(index, topic, message));
+    }
+
+    /** Number of topics passed in. */
+    public int getRequested() {
+        return requested;
+    }
+
+    /** Number of topics written to the database. */
+    public int getInserted() {
+        return inserted;
+    }
+
+    /** Rows that were rejected, in input order. */
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean isFullySuccessful() {
+        return failures.isEmpty() && inserted == requested;
+    }
+
+    @Override
+    public String toString() {
+        return "Inserted " + inserted + " of " + requested + " topic(s), " + failures.size() + " failed";
+    }
+
+    /**
+     * One rejected row: its position in the input, the Topic itself,
+     * and the database's error message.
+     */
+    public static class Failure {
+        private final int index;
+        private final Topic topic;
+        private final String message;
+
+        Failure(int index, Topic topic, String message) {
+            this.index = index;
+            this.topic = topic;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Topic getTopic() {
+            return topic;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " (" + (topic == null ? null : topic.getName()) + "): " + message;
+        }
+    }
+}
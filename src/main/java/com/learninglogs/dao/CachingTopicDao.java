@@ -0,0 +1,528 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.AppConfig;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A TopicDao that remembers what it read.
+ *
+ * This is the Decorator pattern: CachingTopicDao implements TopicDao AND
+ * wraps another TopicDao. Callers can't tell the difference — they still
+ * just call fetchAllTopics() — but repeated reads are answered from
+ * memory instead of going to MySQL every time.
+ *
+ *   LearningLogs ──▶ CachingTopicDao ──(miss)──▶ TopicDaoImpl ──▶ MySQL
+ *                          │
+ *                          └──(hit)──▶ in-memory snapshot
+ *
+ * How the snapshot stays correct:
+ *   - Read-through:  the first read loads the whole table once
+ *   - Write-through: insertTopic()/insertTopics()/deleteTopic() update
+ *                    the snapshot right after the database accepts them
+ *   - Delta sync:    once the snapshot is older than ttlMillis, the next
+ *                    read asks only for what changed since the last sync
+ *                    (fetchTopicsChangedSince) and merges it in, so rows
+ *                    written or deleted by OTHER terminals show up at a
+ *                    cost of O(changes), not O(table)
+ *   - Full reload:   every fullReloadMillis the snapshot is rebuilt from
+ *                    scratch anyway, in case tombstones were purged
+ *   - Size bound:    a table larger than maxTableRows is not cached at all
+ *                    (reads pass straight through). The snapshot is the
+ *                    WHOLE table — fetchAllTopics() answers from it — so
+ *                    there is no per-entry LRU eviction: dropping single
+ *                    rows would make every list read wrong. Going over the
+ *                    bound invalidates the snapshot instead, and
+ *                    CacheStats counts those invalidations.
+ *   - Copies:        callers get their own Topic objects, so changing one
+ *                    (setName(), setId()) can't corrupt the snapshot
+ *
+ * Each sync asks from BEFORE the newest change it has seen
+ * (overlapMillis). A row's updated_at is set when it is written, not
+ * when its transaction commits, so a long transaction (a big
+ * insertTopics() batch from another terminal) can commit rows older
+ * than ones already seen. The overlap reads such rows again instead of
+ * missing them, and merging a row twice changes nothing. By default it
+ * covers the query timeout ("learninglogs.pool.queryTimeoutSec"), the
+ * longest any statement may run, plus a margin for the commit; only a
+ * transaction of several long statements can outlast it, and the full
+ * reload picks that up.
+ */
+public class CachingTopicDao implements TopicDao {
+
+    private final TopicDao delegate;
+    private final long ttlNanos;
+    private final int maxTableRows;
+    private final long fullReloadNanos;
+    private final long overlapMillis;
+
+    private volatile Snapshot snapshot;
+    /** While the table is too big to cache, skip loading until this time. */
+    private volatile long bypassUntilNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder syncedRows = new LongAdder();
+
+    public CachingTopicDao(TopicDao delegate, long ttlMillis, int maxTableRows) {
+        this(delegate, ttlMillis, maxTableRows, TimeUnit.MINUTES.toMillis(10), defaultOverlapMillis());
+    }
+
+    public CachingTopicDao(TopicDao delegate, long ttlMillis, int maxTableRows,
+                           long fullReloadMillis, long overlapMillis) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxTableRows = maxTableRows;
+        this.fullReloadNanos = TimeUnit.MILLISECONDS.toNanos(fullReloadMillis);
+        this.overlapMillis = Math.max(0, overlapMillis);
+        this.bypassUntilNanos = System.nanoTime();
+    }
+
+    /**
+     * Wrap a TopicDao using "learninglogs.cache.ttlMs" (how stale a read
+     * may be before a delta sync, default 2 s), "learninglogs.cache.maxTableRows",
+     * "learninglogs.cache.fullReloadMs" (default 10 min) and
+     * "learninglogs.cache.syncOverlapMs" (default: the query timeout
+     * plus 2 s) from AppConfig.
+     */
+    public static CachingTopicDao fromConfig(TopicDao delegate) {
+        return new CachingTopicDao(delegate,
+                AppConfig.getLong("learninglogs.cache.ttlMs", 2_000),
+                AppConfig.getInt("learninglogs.cache.maxTableRows", 100_000),
+                AppConfig.getLong("learninglogs.cache.fullReloadMs", TimeUnit.MINUTES.toMillis(10)),
+                AppConfig.getLong("learninglogs.cache.syncOverlapMs", defaultOverlapMillis()));
+    }
+
+    /** Long enough for any single statement to run and commit. */
+    private static long defaultOverlapMillis() {
+        return AppConfig.getInt("learninglogs.pool.queryTimeoutSec", 30) * 1_000L + 2_000;
+    }
+
+    @Override
+    public boolean insertTopic(Topic topic) {
+        boolean success = delegate.insertTopic(topic);
+        if (success) {
+            cacheInserted(List.of(topic));
+        }
+        return success;
+    }
+
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        List<Topic> rows = new ArrayList<>(topics);
+        BatchResult result = delegate.insertTopics(rows);
+
+        List<Topic> inserted = new ArrayList<>(rows);
+        for (BatchResult.Failure failure : result.getFailures()) {
+            inserted.set(failure.getIndex(), null);
+        }
+        inserted.removeIf(topic -> topic == null);
+        cacheInserted(inserted);
+        return result;
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        boolean success = delegate.deleteTopic(id);
+        Snapshot current = snapshot;
+        if (success && current != null) {
+            current.remove(id);
+        }
+        return success;
+    }
+
+    /**
+     * Always answered by the delegate: callers asking for changes want
+     * the database's view, not this cache's.
+     */
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        return delegate.fetchTopicsChangedSince(since);
+    }
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return delegate.fetchAllTopics();
+        }
+        ArrayList<Topic> topics = new ArrayList<>(current.byId.size());
+        for (Topic topic : current.byId.values()) {
+            topics.add(copyOf(topic));
+        }
+        return topics;
+    }
+
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return delegate.fetchTopicsAfter(lastId, limit);
+        }
+        ArrayList<Topic> page = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        for (Topic topic : current.byId.tailMap(lastId, false).values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(copyOf(topic));
+        }
+        return page;
+    }
+
+    @Override
+    public TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return delegate.fetchTopicTableAfter(lastId, limit);
+        }
+        // The table copies every value, so no Topic of the snapshot escapes
+        TopicTable page = new TopicTable(Math.max(1, Math.min(limit, 1024)));
+        for (Topic topic : current.byId.tailMap(lastId, false).values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(topic);
+        }
+        return page;
+    }
+
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return delegate.forEachTopic(action);
+        }
+        int count = 0;
+        for (Topic topic : current.byId.values()) {
+            action.accept(copyOf(topic));
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Stream<Topic> streamTopics() {
+        Snapshot current = currentSnapshot();
+        return current == null ? delegate.streamTopics() : current.byId.values().stream().map(CachingTopicDao::copyOf);
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        return delegate.searchTopics(query, limit);
+    }
+
+    /**
+     * Answered from memory when the table is already cached; otherwise
+     * the delegate counts in SQL — loading the whole table just to
+     * count it would defeat the point.
+     */
+    @Override
+    public long countTopics() {
+        Snapshot current = snapshot == null ? null : currentSnapshot();
+        return current == null ? delegate.countTopics() : current.byId.size();
+    }
+
+    @Override
+    public LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        return delegate.countTopicsCreatedPerDay(from);
+    }
+
+    @Override
+    public ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        return delegate.fetchRecentlyUpdatedTopics(limit);
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Look up a cached topic by id.
+     *
+     * @return the topic, or null if it is not in the table
+     */
+    public Topic getTopic(int id) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            for (Topic topic : delegate.fetchTopicsAfter(id - 1, 1)) {
+                return topic.getId() == id ? topic : null;
+            }
+            return null;
+        }
+        Topic topic = current.byId.get(id);
+        return topic == null ? null : copyOf(topic);
+    }
+
+    /**
+     * Find cached topics by exact name (case-insensitive).
+     */
+    public List<Topic> findTopicsByName(String name) {
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            List<Topic> matches = new ArrayList<>();
+            delegate.forEachTopic(topic -> {
+                if (topic.getName() != null && topic.getName().equalsIgnoreCase(name)) {
+                    matches.add(topic);
+                }
+            });
+            return matches;
+        }
+        Set<Topic> matches = current.byName.get(nameKey(name));
+        return matches == null ? List.of() : new ArrayList<>(matches.stream().map(CachingTopicDao::copyOf).toList());
+    }
+
+    /**
+     * Bring the snapshot up to date now (a delta sync), instead of
+     * waiting for the TTL. Does nothing if nothing is cached yet.
+     *
+     * @return how many changed or deleted rows were merged in
+     */
+    public int sync() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return 0;
+        }
+        synchronized (this) {
+            return snapshot == current ? applyChanges(current) : 0;
+        }
+    }
+
+    /**
+     * Drop the snapshot so the next read goes to the database.
+     */
+    public void invalidate() {
+        if (snapshot != null) {
+            snapshot = null;
+            invalidations.increment();
+        }
+    }
+
+    public CacheStats getStats() {
+        Snapshot current = snapshot;
+        return new CacheStats(hits.sum(), misses.sum(), invalidations.sum(),
+                current == null ? 0 : current.byId.size(), syncs.sum(), syncedRows.sum());
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAtNanos > fullReloadNanos) {
+            invalidate();
+            current = null;
+        }
+        if (current != null && System.nanoTime() - current.syncedAtNanos > ttlNanos) {
+            synchronized (this) {
+                // Another reader may have synced (or dropped) it meanwhile
+                if (snapshot == current && System.nanoTime() - current.syncedAtNanos > ttlNanos) {
+                    applyChanges(current);
+                }
+                current = snapshot;
+            }
+        }
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+
+        misses.increment();
+        if (System.nanoTime() - bypassUntilNanos < 0) {
+            return null;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                current = load();
+                snapshot = current;
+                if (current == null) {
+                    bypassUntilNanos = System.nanoTime() + ttlNanos;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Read the whole table through the delegate. Returns null (and
+     * caches nothing) if the table is bigger than maxTableRows.
+     */
+    private Snapshot load() {
+        Snapshot loaded = new Snapshot();
+        try (Stream<Topic> topics = delegate.streamTopics()) {
+            // Read one row past the limit — that is enough to know we are over it
+            topics.limit((long) maxTableRows + 1).forEach(topic -> {
+                loaded.add(topic);
+                loaded.latestMillis = Math.max(loaded.latestMillis, topic.getUpdatedAtMillis());
+            });
+        }
+        return loaded.byId.size() > maxTableRows ? null : loaded;
+    }
+
+    /**
+     * Merge everything that changed since the last sync into the
+     * snapshot. Caller must hold the lock on this.
+     *
+     * @return how many rows were merged
+     */
+    private int applyChanges(Snapshot current) {
+        Timestamp since = current.latestMillis == Topic.NO_TIME ? null
+                : new Timestamp(current.latestMillis - overlapMillis);
+        TopicChanges changes = delegate.fetchTopicsChangedSince(since);
+        for (Topic topic : changes.getChanged()) {
+            current.add(topic);
+        }
+        for (int id : changes.getDeletedIds()) {
+            current.remove(id);
+        }
+        current.latestMillis = Math.max(current.latestMillis, Topic.millisOf(changes.getLatest()));
+        current.syncedAtNanos = System.nanoTime();
+        syncs.increment();
+        syncedRows.add(changes.size());
+
+        if (current.byId.size() > maxTableRows) {
+            invalidate();
+        }
+        return changes.size();
+    }
+
+    private void cacheInserted(List<Topic> inserted) {
+        Snapshot current = snapshot;
+        if (current == null || inserted.isEmpty()) {
+            return;
+        }
+        for (Topic topic : inserted) {
+            if (topic.getId() <= 0 || current.byId.size() >= maxTableRows) {
+                // Without an id we can't place the row, and past the size
+                // bound we stop caching — either way, reload on next read.
+                invalidate();
+                return;
+            }
+            current.add(copyOf(topic));
+        }
+    }
+
+    /** A Topic the caller may change without touching the snapshot. */
+    private static Topic copyOf(Topic topic) {
+        return new Topic(topic.getId(), topic.getName(), topic.getCreatedAtMillis(), topic.getUpdatedAtMillis());
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One loaded copy of the table, indexed two ways.
+     */
+    private static final class Snapshot {
+        private final long loadedAtNanos = System.nanoTime();
+        private volatile long syncedAtNanos = loadedAtNanos;
+        /** Newest updated_at / deleted_at merged in so far (database time). */
+        private long latestMillis = Topic.NO_TIME;
+        private final ConcurrentSkipListMap<Integer, Topic> byId = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<Topic>> byName = new ConcurrentHashMap<>();
+
+        /** Add a topic, or replace the cached copy of it. */
+        private void add(Topic topic) {
+            Topic previous = byId.put(topic.getId(), topic);
+            if (previous != null) {
+                removeName(previous);
+            }
+            byName.computeIfAbsent(nameKey(topic.getName()), key -> ConcurrentHashMap.newKeySet()).add(topic);
+        }
+
+        private void remove(int id) {
+            Topic previous = byId.remove(id);
+            if (previous != null) {
+                removeName(previous);
+            }
+        }
+
+        private void removeName(Topic topic) {
+            byName.computeIfPresent(nameKey(topic.getName()), (key, topics) -> {
+                topics.remove(topic);
+                return topics.isEmpty() ? null : topics;
+            });
+        }
+    }
+
+    /**
+     * Cache counters: how often reads were served from memory.
+     */
+    public static final class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long invalidations;
+        private final int size;
+        private final long syncs;
+        private final long syncedRows;
+
+        private CacheStats(long hits, long misses, long invalidations, int size, long syncs, long syncedRows) {
+            this.hits = hits;
+            this.misses = misses;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.syncs = syncs;
+            this.syncedRows = syncedRows;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /** Times the snapshot was dropped: too big, too old, or invalidate(). */
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /** Delta syncs run so far. */
+        public long getSyncs() {
+            return syncs;
+        }
+
+        /** Changed or deleted rows read by those syncs, in total. */
+        public long getSyncedRows() {
+            return syncedRows;
+        }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d invalidations=%d size=%d hitRatio=%.2f syncs=%d syncedRows=%d",
+                    hits, misses, invalidations, size, getHitRatio(), syncs, syncedRows);
+        }
+    }
+}
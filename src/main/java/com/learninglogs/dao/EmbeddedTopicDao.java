@@ -0,0 +1,681 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Entry;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A TopicDao (and, through entries(), an EntryDao) that needs no
+ * database server at all.
+ *
+ * Topics and entries are stored in a single append-only file (a "log"). Every insert
+ * adds one record to the end of the file; nothing is ever rewritten.
+ * When the program starts, the log is read once from top to bottom to
+ * rebuild an in-memory index (id → Topic), and every read after that is
+ * answered from memory.
+ *
+ *   data/learning_logs.log
+ *   ┌──────────┬──────────┬──────────┬─────┐
+ *   │ record 1 │ record 2 │ record 3 │ ... │  ← new records go here
+ *   └──────────┴──────────┴──────────┴─────┘
+ *
+ * Each record mirrors one row of a table in sql/learninglog.sql:
+ *
+ *   'T' (topic)     │ id (int) │ created_at (long) │ updated_at (long) │ name (text)
+ *   'E' (entry)     │ id (int) │ topic_id (int) │ created_at (long) │ updated_at (long) │ text (text)
+ *   'D' (tombstone) │ id (int) │ deleted_at (long)
+ *
+ * A (text) field is its length in bytes (unsigned short) followed by
+ * the string in standard UTF-8 — the same bytes MySQL stores, so the
+ * 65,535-byte limit checked before writing is the one that applies.
+ * (DataOutputStream.writeUTF() looks alike but uses "modified" UTF-8,
+ * where an emoji takes 6 bytes instead of 4.)
+ *
+ * The same rules as the MySQL schema apply: ids come from an
+ * AUTO_INCREMENT-style counter (unless the Topic already has one, as
+ * with ShardedTopicDao), name is NOT NULL and at most 100 characters,
+ * an entry's text is NOT NULL and fits a TEXT column, and its topic
+ * must exist. A deleted topic stays in the file; the tombstone written
+ * after it removes it (and, like ON DELETE CASCADE, its entries) again
+ * during replay.
+ *
+ * Records become visible in memory only once they are written to the
+ * file. If a write fails, whatever part of it reached the file is cut
+ * off again. If the program crashes in the middle of writing a record,
+ * the half record at the end is cut off the next time the log is
+ * opened. Anything else that doesn't parse (an unknown record type in
+ * the middle) stops the open with an error instead of being thrown away.
+ *
+ * The file is locked while it is open, so a second program (or a second
+ * EmbeddedTopicDao) can't write to the same log at the same time.
+ */
+public class EmbeddedTopicDao implements TopicDao {
+
+    private static final byte TOPIC_RECORD = 'T';
+    private static final byte ENTRY_RECORD = 'E';
+    private static final byte DELETE_RECORD = 'D';
+    private static final int MAX_NAME_LENGTH = 100;
+    /** A MySQL TEXT column holds up to 65,535 bytes. */
+    private static final int MAX_TEXT_BYTES = 65_535;
+
+    private final Path file;
+    private final boolean syncOnWrite;
+    private final ConcurrentSkipListMap<Integer, Topic> topicsById = new ConcurrentSkipListMap<>();
+    /** id → deleted_at of every deleted topic. */
+    private final Map<Integer, Long> tombstones = new ConcurrentHashMap<>();
+    private final TopicSearchIndex searchIndex = new TopicSearchIndex();
+    /** topic id → its entries, oldest first; guarded by writeLock. */
+    private final Map<Integer, ArrayList<Entry>> entriesByTopic = new HashMap<>();
+    private final Object writeLock = new Object();
+    private final EntryDao entries = new EntryStore();
+
+    private FileChannel channel;
+    private DataOutputStream out;
+    /** File length up to the last successful flushLog(). */
+    private long flushedLength;
+    private int lastId;
+    private int lastEntryId;
+
+    /**
+     * Open (or create) the log file and load it into memory.
+     *
+     * @param file        where the log lives
+     * @param syncOnWrite force every write to disk before returning
+     *                    (safer, but much slower)
+     */
+    public EmbeddedTopicDao(Path file, boolean syncOnWrite) {
+        this.file = file;
+        this.syncOnWrite = syncOnWrite;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            lock();
+            long validLength = replay();
+            if (channel.size() > validLength) {
+                System.out.println("Discarding incomplete record at the end of " + file);
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+            flushedLength = validLength;
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        } catch (IOException e) {
+            closeChannel();
+            throw new UncheckedIOException("Cannot open embedded store " + file.toAbsolutePath()
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open the store at "learninglogs.embedded.path"
+     * (default data/learning_logs.log).
+     */
+    public static EmbeddedTopicDao fromConfig() {
+        return new EmbeddedTopicDao(
+                Path.of(AppConfig.getString("learninglogs.embedded.path", "data/learning_logs.log")),
+                AppConfig.getBoolean("learninglogs.embedded.sync", false));
+    }
+
+    @Override
+    public boolean insertTopic(Topic topic) {
+        synchronized (writeLock) {
+            try {
+                validate(topic);
+                Topic saved = append(topic, topic.getId() > 0 ? topic.getId() : lastId + 1, System.currentTimeMillis());
+                flushLog();
+                publish(topic, saved);
+                return true;
+            } catch (IllegalArgumentException | IOException e) {
+                Metrics.error("topicDao.insertTopic");
+                System.out.println("Error inserting topic: " + e.getMessage());
+                if (e instanceof IOException) {
+                    discardUnflushed();
+                }
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        List<Topic> rows = new ArrayList<>(topics);
+        BatchResult result = new BatchResult(rows.size());
+        synchronized (writeLock) {
+            Topic[] saved = new Topic[rows.size()];
+            String[] errors = new String[rows.size()];
+            try {
+                Set<Integer> batchIds = new HashSet<>();
+                int nextId = lastId + 1;
+                long now = System.currentTimeMillis();
+                for (int i = 0; i < rows.size(); i++) {
+                    Topic topic = rows.get(i);
+                    int id = topic.getId() > 0 ? topic.getId() : nextId;
+                    try {
+                        validate(topic);
+                        if (!batchIds.add(id)) {
+                            throw new IllegalArgumentException("Duplicate entry '" + id + "' for key 'PRIMARY'");
+                        }
+                    } catch (IllegalArgumentException e) {
+                        errors[i] = e.getMessage();
+                        continue;
+                    }
+                    saved[i] = append(topic, id, now);
+                    nextId = Math.max(nextId, id + 1);
+                }
+                // One flush for the whole batch
+                flushLog();
+            } catch (IOException e) {
+                Metrics.error("topicDao.insertTopics");
+                System.out.println("Error inserting topics: " + e.getMessage());
+                discardUnflushed();
+                // Nothing of this batch was kept: every row not rejected already fails now
+                for (int i = 0; i < rows.size(); i++) {
+                    if (errors[i] == null) {
+                        errors[i] = e.getMessage();
+                    }
+                }
+            }
+            int inserted = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] != null) {
+                    result.recordFailure(i, rows.get(i), errors[i]);
+                } else {
+                    publish(rows.get(i), saved[i]);
+                    inserted++;
+                }
+            }
+            result.recordInserted(inserted);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        synchronized (writeLock) {
+            if (!topicsById.containsKey(id)) {
+                return false;
+            }
+            try {
+                if (out == null) {
+                    throw new IOException("Embedded store is closed");
+                }
+                long now = System.currentTimeMillis();
+                out.writeByte(DELETE_RECORD);
+                out.writeInt(id);
+                out.writeLong(now);
+                flushLog();
+                topicsById.remove(id);
+                tombstones.put(id, now);
+                searchIndex.remove(id);
+                entriesByTopic.remove(id);
+                return true;
+            } catch (IOException e) {
+                Metrics.error("topicDao.deleteTopic");
+                System.out.println("Error deleting topic: " + e.getMessage());
+                discardUnflushed();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Everything is in memory already, so this is a scan without any
+     * I/O; the tombstones come from the 'D' records.
+     */
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        TopicChanges changes = new TopicChanges(since);
+        long from = Topic.millisOf(since);
+        for (Topic topic : topicsById.values()) {
+            if (topic.getUpdatedAtMillis() >= from) {
+                changes.addChanged(copyOf(topic));
+            }
+        }
+        tombstones.forEach((id, deletedAt) -> {
+            if (deletedAt >= from) {
+                changes.addDeleted(id, deletedAt);
+            }
+        });
+        return changes;
+    }
+
+    @Override
+    public long countTopics() {
+        return topicsById.size();
+    }
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        ArrayList<Topic> topics = new ArrayList<>(topicsById.size());
+        for (Topic topic : topicsById.values()) {
+            topics.add(copyOf(topic));
+        }
+        return topics;
+    }
+
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        ArrayList<Topic> topics = new ArrayList<>();
+        for (Topic topic : topicsById.tailMap(lastId, false).values()) {
+            if (topics.size() >= limit) {
+                break;
+            }
+            topics.add(copyOf(topic));
+        }
+        return topics;
+    }
+
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        int count = 0;
+        for (Topic topic : topicsById.values()) {
+            action.accept(copyOf(topic));
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public TopicTable fetchTopicTable() {
+        TopicTable table = new TopicTable(topicsById.size());
+        for (Topic topic : topicsById.values()) {
+            table.add(topic);
+        }
+        return table;
+    }
+
+    @Override
+    public TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        TopicTable table = new TopicTable(Math.max(1, Math.min(limit, 1024)));
+        for (Topic topic : topicsById.tailMap(lastId, false).values()) {
+            if (table.size() >= limit) {
+                break;
+            }
+            table.add(topic);
+        }
+        return table;
+    }
+
+    @Override
+    public Stream<Topic> streamTopics() {
+        return topicsById.values().stream().map(EmbeddedTopicDao::copyOf);
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        List<Integer> ids;
+        synchronized (writeLock) {
+            ids = searchIndex.search(query, limit);
+        }
+        ArrayList<Topic> topics = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Topic topic = topicsById.get(id);
+            if (topic != null && topics.size() < limit) {
+                topics.add(copyOf(topic));
+            }
+        }
+        return topics;
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            try {
+                if (out != null) {
+                    out.flush();
+                    channel.force(true);
+                    out = null;
+                }
+            } catch (IOException e) {
+                System.out.println("Error closing embedded store: " + e.getMessage());
+            } finally {
+                // Also releases the file lock
+                closeChannel();
+            }
+        }
+    }
+
+    /**
+     * The entries stored in this same log, as an EntryDao.
+     */
+    public EntryDao entries() {
+        return entries;
+    }
+
+    /**
+     * Lock the whole file until close(), so no one else appends to it.
+     */
+    private void lock() throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Already open in this program
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("it is already open, in this or another program");
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Error closing embedded store: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read every record in the log into the index.
+     *
+     * @return the byte length of the log up to the last complete record
+     * @throws IOException on a record type it doesn't know — that is
+     *         damage (or not our file), not a half-written last record
+     */
+    private long replay() throws IOException {
+        long validLength = 0;
+        // Not closed afterwards: that would close the channel too
+        CountingInputStream counted = new CountingInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        DataInputStream in = new DataInputStream(counted);
+        while (true) {
+            try {
+                byte kind = in.readByte();
+                if (kind == DELETE_RECORD) {
+                    int id = in.readInt();
+                    long deletedAt = in.readLong();
+                    topicsById.remove(id);
+                    tombstones.put(id, deletedAt);
+                    searchIndex.remove(id);
+                    entriesByTopic.remove(id);
+                    validLength = counted.count;
+                    continue;
+                }
+                if (kind == ENTRY_RECORD) {
+                    int id = in.readInt();
+                    int topicId = in.readInt();
+                    long createdAt = in.readLong();
+                    long updatedAt = in.readLong();
+                    String text = readText(in);
+                    entriesByTopic.computeIfAbsent(topicId, t -> new ArrayList<>())
+                            .add(new Entry(id, topicId, text, new Timestamp(createdAt), new Timestamp(updatedAt)));
+                    lastEntryId = Math.max(lastEntryId, id);
+                    validLength = counted.count;
+                    continue;
+                }
+                if (kind != TOPIC_RECORD) {
+                    throw new IOException("unknown record type " + kind + " at byte " + validLength);
+                }
+                int id = in.readInt();
+                long createdAt = in.readLong();
+                long updatedAt = in.readLong();
+                String name = readText(in);
+                topicsById.put(id, new Topic(id, name, createdAt, updatedAt));
+                searchIndex.add(id, name);
+                lastId = Math.max(lastId, id);
+                validLength = counted.count;
+            } catch (EOFException e) {
+                break;
+            }
+        }
+        return validLength;
+    }
+
+    /**
+     * Write a topic record into the output buffer. Nothing is visible
+     * until publish(), after the record has been flushed.
+     * Caller must hold writeLock.
+     *
+     * @return the topic as stored
+     */
+    private Topic append(Topic topic, int id, long now) throws IOException {
+        if (out == null) {
+            throw new IOException("Embedded store is closed");
+        }
+        out.writeByte(TOPIC_RECORD);
+        out.writeInt(id);
+        out.writeLong(now);
+        out.writeLong(now);
+        writeText(out, topic.getName());
+        return new Topic(id, topic.getName(), now, now);
+    }
+
+    /** Make a flushed record visible. Caller must hold writeLock. */
+    private void publish(Topic topic, Topic saved) {
+        lastId = Math.max(lastId, saved.getId());
+        // Like the database, fill in the generated values on the caller's object
+        topic.setId(saved.getId());
+        topic.setCreatedAtMillis(saved.getCreatedAtMillis());
+        topic.setUpdatedAtMillis(saved.getUpdatedAtMillis());
+        topicsById.put(saved.getId(), saved);
+        searchIndex.add(saved.getId(), saved.getName());
+    }
+
+    /** Caller must hold writeLock. */
+    private void flushLog() throws IOException {
+        out.flush();
+        if (syncOnWrite) {
+            channel.force(false);
+        }
+        flushedLength = channel.position();
+    }
+
+    /**
+     * After a failed write: cut the file back to the last successful
+     * flush, so no half-written record stays in the middle of the log.
+     * Caller must hold writeLock.
+     */
+    private void discardUnflushed() {
+        if (out == null) {
+            return;
+        }
+        try {
+            channel.truncate(flushedLength);
+            channel.position(flushedLength);
+            // The old buffer still holds the failed bytes: start a new one
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        } catch (IOException e) {
+            // What is on disk is unknown now; refuse further writes
+            System.out.println("Error resetting embedded store, no more writes accepted: " + e.getMessage());
+            out = null;
+        }
+    }
+
+    /** Caller must hold writeLock. */
+    private void validate(Topic topic) {
+        if (topic.getId() > 0 && topicsById.containsKey(topic.getId())) {
+            throw new IllegalArgumentException("Duplicate entry '" + topic.getId() + "' for key 'PRIMARY'");
+        }
+        String name = topic.getName();
+        if (name == null) {
+            throw new IllegalArgumentException("Topic name cannot be null");
+        }
+        // VARCHAR(100) counts characters, and an emoji is ONE character (but two chars)
+        if (name.codePointCount(0, name.length()) > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Topic name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+    }
+
+    /** Write a (text) field; the caller has checked it fits. */
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_TEXT_BYTES) {
+            throw new IOException("Text of " + bytes.length + " bytes does not fit a record");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Entry copyOf(Entry entry) {
+        return new Entry(entry.getId(), entry.getTopicId(), entry.getText(),
+                entry.getCreatedAt(), entry.getUpdatedAt());
+    }
+
+    private static Topic copyOf(Topic topic) {
+        return new Topic(topic.getId(), topic.getName(), topic.getCreatedAtMillis(), topic.getUpdatedAtMillis());
+    }
+
+    // ============================================================
+    // Entries — the same log, the same lock
+    // ============================================================
+
+    /** The EntryDao behind entries(): it shares the topics' log, lock and writeLock. */
+    private final class EntryStore implements EntryDao {
+
+        @Override
+        public boolean insertEntry(Entry entry) {
+            synchronized (writeLock) {
+                try {
+                    validate(entry);
+                    if (out == null) {
+                        throw new IOException("Embedded store is closed");
+                    }
+                    int id = lastEntryId + 1;
+                    long now = System.currentTimeMillis();
+                    out.writeByte(ENTRY_RECORD);
+                    out.writeInt(id);
+                    out.writeInt(entry.getTopicId());
+                    out.writeLong(now);
+                    out.writeLong(now);
+                    writeText(out, entry.getText());
+                    flushLog();
+
+                    lastEntryId = id;
+                    entry.setId(id);
+                    entry.setCreatedAt(new Timestamp(now));
+                    entry.setUpdatedAt(new Timestamp(now));
+                    entriesByTopic.computeIfAbsent(entry.getTopicId(), t -> new ArrayList<>()).add(copyOf(entry));
+                    return true;
+                } catch (IllegalArgumentException | IOException e) {
+                    Metrics.error("entryDao.insertEntry");
+                    System.out.println("Error inserting entry: " + e.getMessage());
+                    if (e instanceof IOException) {
+                        discardUnflushed();
+                    }
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public ArrayList<Entry> fetchEntriesByTopic(int topicId) {
+            synchronized (writeLock) {
+                ArrayList<Entry> copies = new ArrayList<>();
+                for (Entry entry : entriesByTopic.getOrDefault(topicId, new ArrayList<>())) {
+                    copies.add(copyOf(entry));
+                }
+                return copies;
+            }
+        }
+
+        @Override
+        public Map<Integer, ArrayList<Entry>> fetchEntriesForTopics(Collection<Integer> topicIds) {
+            Map<Integer, ArrayList<Entry>> byTopic = new LinkedHashMap<>();
+            for (int id : topicIds) {
+                byTopic.computeIfAbsent(id, this::fetchEntriesByTopic);
+            }
+            return byTopic;
+        }
+
+        @Override
+        public LinkedHashMap<Topic, Integer> fetchTopicsWithEntryCounts() {
+            LinkedHashMap<Topic, Integer> counts = new LinkedHashMap<>();
+            synchronized (writeLock) {
+                for (Topic topic : topicsById.values()) {
+                    List<Entry> entries = entriesByTopic.get(topic.getId());
+                    counts.put(copyOf(topic), entries == null ? 0 : entries.size());
+                }
+            }
+            return counts;
+        }
+
+        /** Caller must hold writeLock. */
+        private void validate(Entry entry) {
+            if (!topicsById.containsKey(entry.getTopicId())) {
+                throw new IllegalArgumentException("Cannot add or update a child row: a foreign key constraint fails"
+                        + " (no topic " + entry.getTopicId() + ")");
+            }
+            if (entry.getText() == null) {
+                throw new IllegalArgumentException("Entry text cannot be null");
+            }
+            if (entry.getText().getBytes(StandardCharsets.UTF_8).length > MAX_TEXT_BYTES) {
+                throw new IllegalArgumentException("Entry text is longer than " + MAX_TEXT_BYTES + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Tracks how many bytes have been read, so replay() knows where the
+     * last complete record ends.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
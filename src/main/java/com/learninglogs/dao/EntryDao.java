@@ -0,0 +1,55 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Entry;
+import com.learninglogs.entity.Topic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry DAO Interface — database operations for the `entries` table.
+ *
+ * Watch out for the "N+1 query" trap:
+ *   Showing 50 topics with their entries could mean 1 query for the
+ *   topics + 50 queries for the entries = 51 round trips.
+ *   fetchEntriesForTopics() and fetchTopicsWithEntryCounts() do the
+ *   same job in ONE query each.
+ */
+public interface EntryDao {
+
+    /**
+     * Insert a new entry. On success, its generated id and timestamps
+     * are filled in.
+     *
+     * @param entry The Entry to insert (its topicId must exist)
+     * @return true if inserted successfully, false otherwise
+     */
+    boolean insertEntry(Entry entry);
+
+    /**
+     * Fetch all entries of one topic, oldest first.
+     *
+     * @param topicId The topic whose entries to load
+     * @return the topic's entries (empty if none)
+     */
+    ArrayList<Entry> fetchEntriesByTopic(int topicId);
+
+    /**
+     * Fetch the entries of many topics at once.
+     *
+     * @param topicIds The topics whose entries to load
+     * @return topic id → that topic's entries, oldest first.
+     *         Topics without entries map to an empty list.
+     */
+    Map<Integer, ArrayList<Entry>> fetchEntriesForTopics(Collection<Integer> topicIds);
+
+    /**
+     * Fetch every topic together with how many entries it has,
+     * using a single JOIN + GROUP BY query.
+     *
+     * @return topic → number of entries, in topic id order
+     */
+    LinkedHashMap<Topic, Integer> fetchTopicsWithEntryCounts();
+}
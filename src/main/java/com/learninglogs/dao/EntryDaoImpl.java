@@ -0,0 +1,206 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Entry;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of EntryDao.
+ *
+ * Every query here is shaped to use idx_entries_topic_created, the
+ * (topic_id, created_at) index from sql/learninglog.sql:
+ *   WHERE topic_id = ? ORDER BY created_at   → one index range, already sorted
+ *   WHERE topic_id IN (...)                  → one range per topic
+ *   LEFT JOIN entries ON topic_id = t.id     → index lookup per topic
+ *
+ * Like TopicDaoImpl, every query lists its columns (they are read by
+ * position) and is prepared once per pooled connection
+ * (DatabaseConnection.prepareCached).
+ */
+public class EntryDaoImpl implements EntryDao {
+
+    /** Keep IN (...) lists to a sane size; bigger requests are split. */
+    private static final int MAX_IN_LIST = 1000;
+
+    /** The column list every entry query selects, in this order. */
+    private static final String COLUMNS = "id, topic_id, text, created_at, updated_at";
+    private static final int ID = 1;
+    private static final int TOPIC_ID = 2;
+    private static final int TEXT = 3;
+    private static final int CREATED_AT = 4;
+    private static final int UPDATED_AT = 5;
+
+    private static final String INSERT_SQL = "INSERT INTO entries (topic_id, text) VALUES (?, ?)";
+    private static final String TIMESTAMPS_SQL = "SELECT created_at, updated_at FROM entries WHERE id = ?";
+    private static final String BY_TOPIC_SQL = "SELECT " + COLUMNS
+            + " FROM entries WHERE topic_id = ? ORDER BY created_at, id";
+    private static final String COUNTS_SQL = "SELECT t.id, t.name, t.created_at, t.updated_at, COUNT(e.id) AS entry_count"
+            + " FROM topics t LEFT JOIN entries e ON e.topic_id = t.id"
+            + " GROUP BY t.id, t.name, t.created_at, t.updated_at"
+            + " ORDER BY t.id";
+
+    @Override
+    public boolean insertEntry(Entry entry) {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            // INSERT and read-back commit together, as in TopicDaoImpl.insertTopic()
+            conn.setAutoCommit(false);
+            PreparedStatement insert = DatabaseConnection.prepareCachedReturningKeys(conn, INSERT_SQL);
+            insert.setInt(1, entry.getTopicId());
+            insert.setString(2, entry.getText());
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No id was generated for the entry");
+                }
+                entry.setId(keys.getInt(1));
+            }
+
+            PreparedStatement reload = DatabaseConnection.prepareCached(conn, TIMESTAMPS_SQL);
+            reload.setInt(1, entry.getId());
+            try (ResultSet rs = reload.executeQuery()) {
+                if (rs.next()) {
+                    entry.setCreatedAt(rs.getTimestamp(1));
+                    entry.setUpdatedAt(rs.getTimestamp(2));
+                }
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            Metrics.error("entryDao.insertEntry");
+            DatabaseConnection.reportFailure(e);
+            System.out.println("Error inserting entry: " + e.getMessage());
+            // Not saved (the pool rolls back on release): forget the generated values
+            entry.setId(0);
+            entry.setCreatedAt(null);
+            entry.setUpdatedAt(null);
+            return false;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    @Override
+    public ArrayList<Entry> fetchEntriesByTopic(int topicId) {
+        ArrayList<Entry> entries = new ArrayList<>();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getReadConnection();
+            PreparedStatement statement = DatabaseConnection.prepareCached(conn, BY_TOPIC_SQL);
+            statement.setInt(1, topicId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(toEntry(rs));
+                }
+            }
+        } catch (SQLException e) {
+            Metrics.error("entryDao.fetchEntriesByTopic");
+            DatabaseConnection.reportFailure(e);
+            System.out.println("Error fetching entries: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return entries;
+    }
+
+    /**
+     * The IN (...) list is padded up to a power of two (repeating the
+     * last id, which matches nothing new), so at most a dozen different
+     * SQL strings exist and each is prepared once per connection.
+     */
+    @Override
+    public Map<Integer, ArrayList<Entry>> fetchEntriesForTopics(Collection<Integer> topicIds) {
+        Map<Integer, ArrayList<Entry>> byTopic = new LinkedHashMap<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(topicIds));
+        for (int id : ids) {
+            byTopic.put(id, new ArrayList<>());
+        }
+        if (ids.isEmpty()) {
+            return byTopic;
+        }
+
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getReadConnection();
+            for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+                int slots = Math.min(MAX_IN_LIST, Integer.highestOneBit(chunk.size() - 1) << 1);
+                slots = Math.max(slots, chunk.size());
+                String sql = "SELECT " + COLUMNS + " FROM entries WHERE topic_id IN ("
+                        + placeholders(slots) + ") ORDER BY topic_id, created_at, id";
+                PreparedStatement statement = DatabaseConnection.prepareCached(conn, sql);
+                for (int i = 0; i < slots; i++) {
+                    statement.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        Entry entry = toEntry(rs);
+                        byTopic.get(entry.getTopicId()).add(entry);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            Metrics.error("entryDao.fetchEntriesForTopics");
+            DatabaseConnection.reportFailure(e);
+            System.out.println("Error fetching entries: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return byTopic;
+    }
+
+    @Override
+    public LinkedHashMap<Topic, Integer> fetchTopicsWithEntryCounts() {
+        LinkedHashMap<Topic, Integer> counts = new LinkedHashMap<>();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getReadConnection();
+            PreparedStatement statement = DatabaseConnection.prepareCached(conn, COUNTS_SQL);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    // Columns 1-4 are the topic, column 5 is the count
+                    counts.put(TopicRowMapper.map(rs), rs.getInt(5));
+                }
+            }
+        } catch (SQLException e) {
+            Metrics.error("entryDao.fetchTopicsWithEntryCounts");
+            DatabaseConnection.reportFailure(e);
+            System.out.println("Error fetching entry counts: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return counts;
+    }
+
+    /** Reads the row by position: the query must select COLUMNS. */
+    private Entry toEntry(ResultSet rs) throws SQLException {
+        return new Entry(
+            rs.getInt(ID),
+            rs.getInt(TOPIC_ID),
+            rs.getString(TEXT),
+            rs.getTimestamp(CREATED_AT),
+            rs.getTimestamp(UPDATED_AT)
+        );
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,219 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.Metrics;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A TopicDao that breaks on purpose — for trying out ResilientTopicDao
+ * without pulling the plug on a real MySQL server.
+ *
+ * It wraps a working backend (e.g. the embedded store, fully offline)
+ * and, before each call:
+ *   - errorRate:  fails it like a dropped connection
+ *                 (SQLTransientConnectionException, SQLState 08001)
+ *   - slowRate:   delays it by slowMillis, like a database under load;
+ *                 a delay longer than queryTimeoutSec (or the time left
+ *                 before the call's deadline) ends in an SQLTimeoutException
+ *                 at that point, just as the driver would cancel a real query
+ *   - outage:     fails EVERY call, like a server restart — switched on
+ *                 with setOutage(), or from outageAfterMs for outageForMs
+ *                 after start-up
+ * Failures look exactly like the real DAO's: an error line, an error
+ * count in Metrics, DatabaseConnection.reportFailure(), and an empty
+ * result or false.
+ *
+ * Turn it on with "learninglogs.faults.enabled=true" (see
+ * LearningLogs.createTopicDao), e.g. with the LoadDriver:
+ *   -Dlearninglogs.backend=embedded -Dlearninglogs.faults.enabled=true
+ *   -Dlearninglogs.faults.errorRate=0.05 -Dlearninglogs.faults.outageAfterMs=5000
+ */
+public class FaultInjectingTopicDao implements TopicDao {
+
+    private final TopicDao delegate;
+    private final double errorRate;
+    private final double slowRate;
+    private final long slowMillis;
+    private final long timeoutMillis;
+    private final long outageFromNanos;
+    private final long outageUntilNanos;
+    private volatile boolean outage;
+
+    /**
+     * @param timeoutMillis  longest a slow call waits before timing out (0 = no limit)
+     * @param outageAfterMillis when the scheduled outage starts, from now (negative = none)
+     */
+    public FaultInjectingTopicDao(TopicDao delegate, double errorRate, double slowRate, long slowMillis,
+                                  long timeoutMillis, long outageAfterMillis, long outageForMillis) {
+        this.delegate = delegate;
+        this.errorRate = errorRate;
+        this.slowRate = slowRate;
+        this.slowMillis = slowMillis;
+        this.timeoutMillis = timeoutMillis;
+        long now = System.nanoTime();
+        this.outageFromNanos = outageAfterMillis < 0 ? Long.MAX_VALUE : now + outageAfterMillis * 1_000_000L;
+        this.outageUntilNanos = outageAfterMillis < 0 ? Long.MAX_VALUE : outageFromNanos + outageForMillis * 1_000_000L;
+    }
+
+    /**
+     * Wrap a TopicDao using "learninglogs.faults.errorRate" (0.0-1.0,
+     * default 0), "slowRate" (0), "slowMs" (2000), "outageAfterMs" (-1 =
+     * never), "outageForMs" (10000), timing out slow calls after
+     * "learninglogs.pool.queryTimeoutSec" like the real pool.
+     */
+    public static FaultInjectingTopicDao fromConfig(TopicDao delegate) {
+        return new FaultInjectingTopicDao(delegate,
+                AppConfig.getDouble("learninglogs.faults.errorRate", 0),
+                AppConfig.getDouble("learninglogs.faults.slowRate", 0),
+                AppConfig.getLong("learninglogs.faults.slowMs", 2_000),
+                AppConfig.getInt("learninglogs.pool.queryTimeoutSec", 30) * 1_000L,
+                AppConfig.getLong("learninglogs.faults.outageAfterMs", -1),
+                AppConfig.getLong("learninglogs.faults.outageForMs", 10_000));
+    }
+
+    /** Fail every call until switched off again. */
+    public void setOutage(boolean outage) {
+        this.outage = outage;
+    }
+
+    @Override
+    public boolean insertTopic(Topic topic) {
+        return run("insertTopic", () -> delegate.insertTopic(topic), false);
+    }
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        return run("fetchAllTopics", delegate::fetchAllTopics, new ArrayList<>());
+    }
+
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        return run("fetchTopicsAfter", () -> delegate.fetchTopicsAfter(lastId, limit), new ArrayList<>());
+    }
+
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        BatchResult failed = new BatchResult(topics.size());
+        int index = 0;
+        for (Topic topic : topics) {
+            failed.recordFailure(index++, topic, "injected fault");
+        }
+        return run("insertTopics", () -> delegate.insertTopics(topics), failed);
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        return run("deleteTopic", () -> delegate.deleteTopic(id), false);
+    }
+
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        return run("forEachTopic", () -> delegate.forEachTopic(action), 0);
+    }
+
+    @Override
+    public Stream<Topic> streamTopics() {
+        return run("streamTopics", delegate::streamTopics, Stream.empty());
+    }
+
+    @Override
+    public TopicTable fetchTopicTable() {
+        return run("fetchTopicTable", delegate::fetchTopicTable, new TopicTable());
+    }
+
+    @Override
+    public TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        return run("fetchTopicTableAfter", () -> delegate.fetchTopicTableAfter(lastId, limit), new TopicTable());
+    }
+
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        return run("fetchTopicsChangedSince", () -> delegate.fetchTopicsChangedSince(since), new TopicChanges(since));
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        return run("searchTopics", () -> delegate.searchTopics(query, limit), new ArrayList<>());
+    }
+
+    @Override
+    public long countTopics() {
+        return run("countTopics", delegate::countTopics, 0L);
+    }
+
+    @Override
+    public LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        return run("countTopicsCreatedPerDay", () -> delegate.countTopicsCreatedPerDay(from), new LinkedHashMap<>());
+    }
+
+    @Override
+    public ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        return run("fetchRecentlyUpdatedTopics", () -> delegate.fetchRecentlyUpdatedTopics(limit), new ArrayList<>());
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private <T> T run(String method, Supplier<T> call, T failed) {
+        SQLException fault = nextFault();
+        if (fault == null) {
+            return call.get();
+        }
+        Metrics.error("topicDao." + method);
+        DatabaseConnection.reportFailure(fault);
+        System.out.println("Error in " + method + ": " + fault.getMessage());
+        return failed;
+    }
+
+    /** The fault for this call (after any injected delay), or null to let it through. */
+    private SQLException nextFault() {
+        long now = System.nanoTime();
+        if (outage || (now >= outageFromNanos && now < outageUntilNanos)) {
+            return new SQLTransientConnectionException("Communications link failure (injected outage)", "08001");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < errorRate) {
+            return new SQLTransientConnectionException("Communications link failure (injected)", "08001");
+        }
+        if (random.nextDouble() < slowRate) {
+            // Like the real pool: a call with a deadline times out when it runs out
+            long limit = timeoutMillis > 0 ? timeoutMillis : Long.MAX_VALUE;
+            long left = DatabaseConnection.remainingMillis();
+            if (left >= 0) {
+                limit = Math.min(limit, left);
+            }
+            boolean timesOut = slowMillis > limit;
+            try {
+                Thread.sleep(timesOut ? limit : slowMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (timesOut) {
+                return new SQLTimeoutException("Statement cancelled due to timeout (injected)", "HYT00");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Entry;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An EntryDao that times every call and reports it to Metrics
+ * ("entryDao.insertEntry", ...). See InstrumentedTopicDao.
+ */
+public class InstrumentedEntryDao implements EntryDao {
+
+    private static final String PREFIX = "entryDao.";
+
+    private final EntryDao delegate;
+
+    public InstrumentedEntryDao(EntryDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean insertEntry(Entry entry) {
+        long start = System.nanoTime();
+        boolean success = delegate.insertEntry(entry);
+        done("insertEntry", start, success ? 1 : 0, "topic " + entry.getTopicId());
+        return success;
+    }
+
+    @Override
+    public ArrayList<Entry> fetchEntriesByTopic(int topicId) {
+        long start = System.nanoTime();
+        ArrayList<Entry> entries = delegate.fetchEntriesByTopic(topicId);
+        done("fetchEntriesByTopic", start, entries.size(), "topic " + topicId);
+        return entries;
+    }
+
+    @Override
+    public Map<Integer, ArrayList<Entry>> fetchEntriesForTopics(Collection<Integer> topicIds) {
+        long start = System.nanoTime();
+        Map<Integer, ArrayList<Entry>> byTopic = delegate.fetchEntriesForTopics(topicIds);
+        long rows = 0;
+        for (ArrayList<Entry> entries : byTopic.values()) {
+            rows += entries.size();
+        }
+        done("fetchEntriesForTopics", start, rows, topicIds.size() + " topics");
+        return byTopic;
+    }
+
+    @Override
+    public LinkedHashMap<Topic, Integer> fetchTopicsWithEntryCounts() {
+        long start = System.nanoTime();
+        LinkedHashMap<Topic, Integer> counts = delegate.fetchTopicsWithEntryCounts();
+        done("fetchTopicsWithEntryCounts", start, counts.size(), null);
+        return counts;
+    }
+
+    private static void done(String method, long start, long rows, Object detail) {
+        String op = PREFIX + method;
+        Metrics.record(op, System.nanoTime() - start, detail);
+        Metrics.rows(op, rows);
+    }
+}
@@ -0,0 +1,171 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.Metrics;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A TopicDao that times every call and reports it to Metrics.
+ *
+ * Another decorator, like CachingTopicDao: it wraps the real DAO and
+ * records, per method ("topicDao.fetchAllTopics", ...):
+ *   - how long the call took (latency histogram, slow-query log)
+ *   - how many rows it returned or wrote
+ * Errors are counted where they are caught, inside the real DAO.
+ *
+ * It wraps the storage backend directly (see LearningLogs.createTopicDao),
+ * so the numbers show real database / file work, not cache hits.
+ */
+public class InstrumentedTopicDao implements TopicDao {
+
+    private static final String PREFIX = "topicDao.";
+
+    private final TopicDao delegate;
+
+    public InstrumentedTopicDao(TopicDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean insertTopic(Topic topic) {
+        long start = System.nanoTime();
+        boolean success = delegate.insertTopic(topic);
+        done("insertTopic", start, success ? 1 : 0, topic.getName());
+        return success;
+    }
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        long start = System.nanoTime();
+        ArrayList<Topic> topics = delegate.fetchAllTopics();
+        done("fetchAllTopics", start, topics.size(), null);
+        return topics;
+    }
+
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        long start = System.nanoTime();
+        ArrayList<Topic> topics = delegate.fetchTopicsAfter(lastId, limit);
+        done("fetchTopicsAfter", start, topics.size(), "after id " + lastId);
+        return topics;
+    }
+
+    @Override
+    public TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        long start = System.nanoTime();
+        TopicTable table = delegate.fetchTopicTableAfter(lastId, limit);
+        done("fetchTopicTableAfter", start, table.size(), "after id " + lastId);
+        return table;
+    }
+
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        long start = System.nanoTime();
+        BatchResult result = delegate.insertTopics(topics);
+        done("insertTopics", start, result.getInserted(), topics.size() + " topics");
+        return result;
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        long start = System.nanoTime();
+        boolean success = delegate.deleteTopic(id);
+        done("deleteTopic", start, success ? 1 : 0, "id " + id);
+        return success;
+    }
+
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        long start = System.nanoTime();
+        int count = delegate.forEachTopic(action);
+        done("forEachTopic", start, count, null);
+        return count;
+    }
+
+    @Override
+    public TopicTable fetchTopicTable() {
+        long start = System.nanoTime();
+        TopicTable table = delegate.fetchTopicTable();
+        done("fetchTopicTable", start, table.size(), null);
+        return table;
+    }
+
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        long start = System.nanoTime();
+        TopicChanges changes = delegate.fetchTopicsChangedSince(since);
+        done("fetchTopicsChangedSince", start, changes.size(), since == null ? "everything" : "since " + since);
+        return changes;
+    }
+
+    /**
+     * The stream is lazy, so the clock runs until it is closed.
+     */
+    @Override
+    public Stream<Topic> streamTopics() {
+        long start = System.nanoTime();
+        LongAdder rows = new LongAdder();
+        return delegate.streamTopics()
+                .peek(topic -> rows.increment())
+                .onClose(() -> done("streamTopics", start, rows.sum(), null));
+    }
+
+    @Override
+    public long countTopics() {
+        long start = System.nanoTime();
+        long count = delegate.countTopics();
+        done("countTopics", start, 1, null);
+        return count;
+    }
+
+    @Override
+    public LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        long start = System.nanoTime();
+        LinkedHashMap<LocalDate, Long> perDay = delegate.countTopicsCreatedPerDay(from);
+        done("countTopicsCreatedPerDay", start, perDay.size(), "from " + from);
+        return perDay;
+    }
+
+    @Override
+    public ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        long start = System.nanoTime();
+        ArrayList<Topic> topics = delegate.fetchRecentlyUpdatedTopics(limit);
+        done("fetchRecentlyUpdatedTopics", start, topics.size(), null);
+        return topics;
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        long start = System.nanoTime();
+        ArrayList<Topic> topics = delegate.searchTopics(query, limit);
+        done("searchTopics", start, topics.size(), query);
+        return topics;
+    }
+
+    @Override
+    public void flush() {
+        long start = System.nanoTime();
+        delegate.flush();
+        done("flush", start, 0, null);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private static void done(String method, long start, long rows, Object detail) {
+        String op = PREFIX + method;
+        Metrics.record(op, System.nanoTime() - start, detail);
+        Metrics.rows(op, rows);
+    }
+}
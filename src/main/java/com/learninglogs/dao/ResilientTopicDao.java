@@ -0,0 +1,485 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.CircuitBreaker;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.Metrics;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A TopicDao that rides out database hiccups instead of stalling the
+ * terminal — one more decorator, like CachingTopicDao.
+ *
+ *   - Retries:  a call that failed for a passing reason (lost connection,
+ *               deadlock, lock wait) is tried again after a short random
+ *               pause ("full jitter": 0..backoff, doubling each time), so
+ *               many terminals don't all retry at the same instant.
+ *               Retries stop after maxAttempts, or when the next pause
+ *               would take the call past budgetMillis.
+ *   - Deadline: budgetMillis bounds the whole call, not just the retries.
+ *               Each attempt runs with the call's deadline set (see
+ *               DatabaseConnection.setDeadline), so waiting for a pooled
+ *               connection, the query timeout and every network read are
+ *               cut to the time left — one slow attempt can't use up more
+ *               than the budget, and none starts once it is spent.
+ *   - Breaker:  after several outage-type failures in a row the
+ *               CircuitBreaker opens and calls fail fast, without
+ *               touching the database, until it is time to try again.
+ *   - Fallback: while the database is unreachable, reads answer with
+ *               the last result seen for the same question (marked as
+ *               stale in the resilience.stale_reads gauge). Writes
+ *               return false, so the menu reports them as failed.
+ *
+ * Which failures are worth a retry (see the SQLException subclasses and
+ * SQLStates below)?
+ *   reads  → connection problems and deadlocks; NOT query timeouts —
+ *            repeating a query that just took queryTimeoutSec would only
+ *            add load to a database that is already struggling
+ *   writes → only failures where we KNOW nothing was saved: no
+ *            connection could be made, or the server rolled the
+ *            transaction back (deadlock, lock wait). A connection lost
+ *            halfway through might have committed, and retrying that
+ *            could insert the topic twice.
+ * Data errors (duplicate name, bad value) are never retried, and count
+ * as the database working.
+ *
+ * The real DAO swallows its SQLExceptions, so this class learns about
+ * them through DatabaseConnection.reportFailure() / takeFailure(). The
+ * failure a call finally ends with (or a refusal by the open breaker)
+ * is reported again, for the caller to check in turn.
+ */
+public class ResilientTopicDao implements TopicDao {
+
+    private static final int FALLBACK_ENTRIES = 64;
+
+    private final TopicDao delegate;
+    private final CircuitBreaker breaker;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final long budgetNanos;
+    private final int fallbackMaxRows;
+
+    /** Last good answer per question ("all", "search:java:20", ...), LRU; guarded by itself. */
+    private final Map<String, Object> lastGood = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > FALLBACK_ENTRIES;
+        }
+    };
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+
+    /**
+     * @param maxAttempts      tries per call, including the first
+     * @param backoffMillis    longest pause before the first retry
+     * @param maxBackoffMillis cap for the doubling pause
+     * @param budgetMillis     longest a call may take, all attempts and pauses included
+     * @param fallbackMaxRows  fetchAllTopics() results larger than this
+     *                         are not kept for fallback
+     */
+    public ResilientTopicDao(TopicDao delegate, CircuitBreaker breaker, int maxAttempts, long backoffMillis,
+                             long maxBackoffMillis, long budgetMillis, int fallbackMaxRows) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = Math.max(0, backoffMillis);
+        this.maxBackoffMillis = Math.max(this.backoffMillis, maxBackoffMillis);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.fallbackMaxRows = fallbackMaxRows;
+
+        Metrics.gauge("resilience.breaker_state", () -> breaker.getState().ordinal());
+        Metrics.gauge("resilience.breaker_opened", breaker::getTimesOpened);
+        Metrics.gauge("resilience.retries", retries::sum);
+        Metrics.gauge("resilience.rejected", rejected::sum);
+        Metrics.gauge("resilience.stale_reads", staleReads::sum);
+    }
+
+    /**
+     * Wrap a TopicDao using the "learninglogs.resilience.*" settings:
+     * maxAttempts (3), backoffMs (50), maxBackoffMs (1000), budgetMs
+     * (3000), failureThreshold (5), openMs (5000), fallbackMaxRows (10000).
+     */
+    public static ResilientTopicDao fromConfig(TopicDao delegate) {
+        CircuitBreaker breaker = new CircuitBreaker("Database",
+                AppConfig.getInt("learninglogs.resilience.failureThreshold", 5),
+                AppConfig.getLong("learninglogs.resilience.openMs", 5_000));
+        return new ResilientTopicDao(delegate, breaker,
+                AppConfig.getInt("learninglogs.resilience.maxAttempts", 3),
+                AppConfig.getLong("learninglogs.resilience.backoffMs", 50),
+                AppConfig.getLong("learninglogs.resilience.maxBackoffMs", 1_000),
+                AppConfig.getLong("learninglogs.resilience.budgetMs", 3_000),
+                AppConfig.getInt("learninglogs.resilience.fallbackMaxRows", 10_000));
+    }
+
+    // ============================================================
+    // Writes — retried only when nothing can have been saved
+    // ============================================================
+
+    @Override
+    public boolean insertTopic(Topic topic) {
+        Boolean success = call(() -> delegate.insertTopic(topic), true).value;
+        return success != null && success;
+    }
+
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        Outcome<BatchResult> outcome = call(() -> delegate.insertTopics(topics), true);
+        if (outcome.value != null) {
+            return outcome.value;
+        }
+        BatchResult result = new BatchResult(topics.size());
+        int index = 0;
+        for (Topic topic : topics) {
+            result.recordFailure(index++, topic, "Database unavailable, try again shortly");
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        Boolean success = call(() -> delegate.deleteTopic(id), true).value;
+        return success != null && success;
+    }
+
+    // ============================================================
+    // Reads — retried, and answered from lastGood while the database is down
+    // ============================================================
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        return read("all", delegate::fetchAllTopics, new ArrayList<>());
+    }
+
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        return read("after:" + lastId + ":" + limit, () -> delegate.fetchTopicsAfter(lastId, limit), new ArrayList<>());
+    }
+
+    @Override
+    public TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        return read("tableAfter:" + lastId + ":" + limit,
+                () -> delegate.fetchTopicTableAfter(lastId, limit), new TopicTable());
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        return read("search:" + query + ":" + limit, () -> delegate.searchTopics(query, limit), new ArrayList<>());
+    }
+
+    @Override
+    public ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        return read("recent:" + limit, () -> delegate.fetchRecentlyUpdatedTopics(limit), new ArrayList<>());
+    }
+
+    @Override
+    public long countTopics() {
+        return read("count", delegate::countTopics, 0L);
+    }
+
+    @Override
+    public LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        return read("perDay:" + from, () -> delegate.countTopicsCreatedPerDay(from), new LinkedHashMap<>());
+    }
+
+    /**
+     * A sync that can't reach the database reports "nothing changed", so
+     * a CachingTopicDao above keeps serving the snapshot it already has.
+     */
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        TopicChanges changes = call(() -> delegate.fetchTopicsChangedSince(since), false).value;
+        return changes != null ? changes : new TopicChanges(since);
+    }
+
+    /**
+     * Retried only if the failure came before the first row — rows the
+     * action has already seen can't be taken back. An export may rightly
+     * run for minutes, so it gets no deadline: the pool's query timeout
+     * and the URL's socketTimeout still end a stuck one.
+     */
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        LongAdder delivered = new LongAdder();
+        Outcome<Integer> outcome = call(() -> delegate.forEachTopic(topic -> {
+            delivered.increment();
+            action.accept(topic);
+        }), false, () -> delivered.sum() == 0, false);
+        if (outcome.value != null) {
+            return outcome.value;
+        }
+        ArrayList<Topic> saved = stale("all");
+        if (saved == null) {
+            return 0;
+        }
+        saved.forEach(action);
+        return saved.size();
+    }
+
+    @Override
+    public TopicTable fetchTopicTable() {
+        Outcome<TopicTable> outcome = call(delegate::fetchTopicTable, false);
+        if (outcome.value != null && outcome.failure == null) {
+            return outcome.value;
+        }
+        ArrayList<Topic> saved = stale("all");
+        if (saved == null) {
+            return outcome.value != null ? outcome.value : new TopicTable();
+        }
+        TopicTable table = new TopicTable();
+        saved.forEach(table::add);
+        return table;
+    }
+
+    /**
+     * The stream is lazy, so it can't be retried; while the breaker is
+     * open it is served from the last fetchAllTopics() instead.
+     */
+    @Override
+    public Stream<Topic> streamTopics() {
+        if (breaker.isOpen()) {
+            rejected.increment();
+            ArrayList<Topic> saved = stale("all");
+            return saved != null ? saved.stream() : Stream.empty();
+        }
+        return delegate.streamTopics();
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    // ============================================================
+    // The retry loop
+    // ============================================================
+
+    private <T> T read(String key, Supplier<T> read, T empty) {
+        Outcome<T> outcome = call(read, false);
+        if (outcome.failure == null && outcome.value != null) {
+            remember(key, outcome.value);
+            return outcome.value;
+        }
+        if (outcome.rejected || isOutage(outcome.failure)) {
+            T saved = stale(key);
+            if (saved != null) {
+                return saved;
+            }
+        }
+        return outcome.value != null ? outcome.value : empty;
+    }
+
+    private <T> Outcome<T> call(Supplier<T> operation, boolean write) {
+        return call(operation, write, () -> true, true);
+    }
+
+    /**
+     * Run one DAO call with retries.
+     *
+     * @param retryable extra condition for a retry (e.g. "no rows delivered yet")
+     * @param bounded   give every attempt the call's deadline (start + budget)
+     */
+    private <T> Outcome<T> call(Supplier<T> operation, boolean write, BooleanSupplier retryable,
+                                boolean bounded) {
+        long deadline = System.nanoTime() + budgetNanos;
+        T value = null;
+        SQLException failure = null;
+        for (int attempt = 1; ; attempt++) {
+            if (attempt > 1 && deadline - System.nanoTime() <= 0) {
+                return finished(value, failure);
+            }
+            if (!breaker.allowRequest()) {
+                rejected.increment();
+                DatabaseConnection.reportFailure(new SQLTransientConnectionException(
+                        "Database is not responding (calls paused)", "08001"));
+                return new Outcome<>(null, null, true);
+            }
+            DatabaseConnection.takeFailure();
+            if (bounded) {
+                DatabaseConnection.setDeadline(deadline);
+            }
+            try {
+                value = operation.get();
+            } finally {
+                if (bounded) {
+                    DatabaseConnection.clearDeadline();
+                }
+            }
+            failure = DatabaseConnection.takeFailure();
+
+            if (isOutage(failure)) {
+                breaker.recordFailure();
+            } else {
+                // Either it worked, or the database answered with an error of its own
+                breaker.recordSuccess();
+            }
+            if (failure == null || !isRetryable(failure, write) || !retryable.getAsBoolean()
+                    || attempt >= maxAttempts) {
+                return finished(value, failure);
+            }
+            long pause = backoff(attempt);
+            if (deadline - System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(pause) <= 0) {
+                return finished(value, failure);
+            }
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return finished(value, failure);
+            }
+            retries.increment();
+        }
+    }
+
+    /** The last attempt's result; its failure stays reported for the caller. */
+    private static <T> Outcome<T> finished(T value, SQLException failure) {
+        if (failure != null) {
+            DatabaseConnection.reportFailure(failure);
+        }
+        return new Outcome<>(value, failure, false);
+    }
+
+    /** Full jitter: a random pause between 0 and backoff * 2^(attempt-1), capped. */
+    private long backoff(int attempt) {
+        long cap = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    // ============================================================
+    // Sorting failures
+    // ============================================================
+
+    /**
+     * The database itself is unreachable or overwhelmed: connection
+     * errors (SQLState class 08) and timeouts. These are what open the
+     * breaker.
+     */
+    static boolean isOutage(SQLException e) {
+        if (e == null) {
+            return false;
+        }
+        String state = e.getSQLState();
+        return e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException
+                || isTimeout(e)
+                || (state != null && state.startsWith("08"));
+    }
+
+    /** A statement ran out of queryTimeoutSec (or a lock / login timeout). */
+    static boolean isTimeout(SQLException e) {
+        return e instanceof SQLTimeoutException || "HYT00".equals(e.getSQLState());
+    }
+
+    /**
+     * The server gave up on our transaction (deadlock, lock wait
+     * timeout) and rolled it back — the database works, try again.
+     */
+    static boolean isRolledBack(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransactionRollbackException
+                || "40001".equals(state)
+                || e.getErrorCode() == 1205   // MySQL: lock wait timeout exceeded
+                || e.getErrorCode() == 1213;  // MySQL: deadlock found
+    }
+
+    static boolean isRetryable(SQLException e, boolean write) {
+        if (isRolledBack(e)) {
+            return true;
+        }
+        if (write) {
+            // Only "could not connect" proves that nothing was sent
+            return e instanceof SQLTransientConnectionException;
+        }
+        return (isOutage(e) || e instanceof SQLTransientException) && !isTimeout(e);
+    }
+
+    // ============================================================
+    // Fallback answers
+    // ============================================================
+
+    private void remember(String key, Object value) {
+        Object copy = value;
+        if (value instanceof List<?> list) {
+            if (key.equals("all") && list.size() > fallbackMaxRows) {
+                return;
+            }
+            copy = new ArrayList<>(list);
+        } else if (value instanceof LinkedHashMap<?, ?> map) {
+            copy = new LinkedHashMap<>(map);
+        }
+        synchronized (lastGood) {
+            lastGood.put(key, copy);
+        }
+    }
+
+    /** A copy of the last good answer, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    private <T> T stale(String key) {
+        Object saved;
+        synchronized (lastGood) {
+            saved = lastGood.get(key);
+        }
+        if (saved == null) {
+            return null;
+        }
+        staleReads.increment();
+        if (saved instanceof ArrayList<?> list) {
+            return (T) new ArrayList<>(list);
+        }
+        if (saved instanceof LinkedHashMap<?, ?> map) {
+            return (T) new LinkedHashMap<>(map);
+        }
+        return (T) saved;
+    }
+
+    /**
+     * What one call ended with: the DAO's return value (null if it never
+     * ran), the failure it reported, and whether the breaker refused it.
+     */
+    private static final class Outcome<T> {
+        private final T value;
+        private final SQLException failure;
+        private final boolean rejected;
+
+        private Outcome(T value, SQLException failure, boolean rejected) {
+            this.value = value;
+            this.failure = failure;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.Metrics;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A TopicDao that spreads the topics over several databases ("shards").
+ *
+ * Each shard is an ordinary TopicDao (a TopicDaoImpl bound to one of
+ * "learninglogs.db.shards", or an EmbeddedTopicDao file) holding the
+ * topics whose id the Router sends there:
+ *
+ *                     ┌──▶ shard 0  (ids where shardOf(id) == 0)
+ *   ShardedTopicDao ──┼──▶ shard 1
+ *                     └──▶ shard 2
+ *
+ *   - Ids:    a topic's id is picked BEFORE it is inserted, from a
+ *             TopicIdAllocator shared by all shards, so it is unique
+ *             everywhere and tells us which shard to write to
+ *   - By id:  insertTopic() / deleteTopic() touch exactly one shard
+ *   - Reads:  fetchAllTopics(), search, counts, ... ask EVERY shard at
+ *             the same time (one virtual thread each) and merge the
+ *             answers: lists by id (or by rank / recency), counts added
+ *             up ("scatter-gather")
+ *
+ * Routing ("learninglogs.shards.routing"):
+ *   hash  → ids are mixed and spread evenly over all shards (default)
+ *   range → shard i holds ids from ranges[i] up to ranges[i + 1] - 1
+ *           ("learninglogs.shards.ranges", e.g. 1,1000000,2000000).
+ *           Simple to reason about, but ids count up from 1, so
+ *           new topics all land on shard 0 until its range is used
+ *           up, then on shard 1, and so on — one shard takes every
+ *           insert at a time.
+ * Changing the number of shards or the routing moves topics to other
+ * shards, and existing rows are NOT moved for you.
+ *
+ * A topic name is only unique per shard now (the topics table has no
+ * unique key on name anyway). Entries are not sharded, so they are
+ * not available with sharding (see LearningLogs.createEntryDao).
+ */
+public class ShardedTopicDao implements TopicDao {
+
+    private final List<TopicDao> shards;
+    private final Router router;
+    private final TopicIdAllocator ids;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedTopicDao(List<TopicDao> shards, Router router, TopicIdAllocator ids) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+        this.shards = List.copyOf(shards);
+        this.router = router;
+        this.ids = ids;
+    }
+
+    /**
+     * Is the given backend set up for sharding? mysql: "learninglogs.db.shards"
+     * lists URLs; embedded: "learninglogs.embedded.shards" is 2 or more.
+     */
+    public static boolean isConfigured(String backend) {
+        return backend.equals("embedded")
+                ? AppConfig.getInt("learninglogs.embedded.shards", 1) > 1
+                : DatabaseConnection.shardCount() > 0;
+    }
+
+    /**
+     * Build the shards for a backend from the "learninglogs.shards.*"
+     * settings (routing, ranges, idBlockSize — default 100).
+     *
+     *   mysql    → one TopicDaoImpl per "learninglogs.db.shards" URL; ids
+     *              from topic_id_sequence in the main database
+     *   embedded → "learninglogs.embedded.shards" log files next to
+     *              "learninglogs.embedded.path" (learning_logs-0.log, ...);
+     *              ids from learning_logs.ids
+     */
+    public static ShardedTopicDao fromConfig(String backend) {
+        int blockSize = AppConfig.getInt("learninglogs.shards.idBlockSize", 100);
+        List<TopicDao> shards = new ArrayList<>();
+        TopicIdAllocator ids;
+        if (backend.equals("embedded")) {
+            Path base = Path.of(AppConfig.getString("learninglogs.embedded.path", "data/learning_logs.log"));
+            String name = base.getFileName().toString();
+            String stem = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+            int count = AppConfig.getInt("learninglogs.embedded.shards", 1);
+            for (int i = 0; i < count; i++) {
+                shards.add(new EmbeddedTopicDao(base.resolveSibling(stem + "-" + i + ".log"),
+                        AppConfig.getBoolean("learninglogs.embedded.sync", false)));
+            }
+            ids = TopicIdAllocator.inFile(base.resolveSibling(stem + ".ids"), blockSize);
+        } else {
+            for (int i = 0; i < DatabaseConnection.shardCount(); i++) {
+                shards.add(new TopicDaoImpl(i));
+            }
+            ids = TopicIdAllocator.inDatabase(blockSize);
+        }
+        return new ShardedTopicDao(shards, routerFromConfig(shards.size()), ids);
+    }
+
+    private static Router routerFromConfig(int shardCount) {
+        String routing = AppConfig.getString("learninglogs.shards.routing", "hash");
+        if (!routing.equals("range")) {
+            if (!routing.equals("hash")) {
+                System.out.println("Unknown shard routing '" + routing + "', using hash.");
+            }
+            return Router.hash(shardCount);
+        }
+        String[] parts = AppConfig.getString("learninglogs.shards.ranges", "").split(",");
+        if (parts.length != shardCount) {
+            throw new IllegalArgumentException("learninglogs.shards.ranges needs " + shardCount
+                    + " lower bounds, one per shard");
+        }
+        int[] lowerBounds = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            lowerBounds[i] = Integer.parseInt(parts[i].trim());
+        }
+        return Router.ranges(lowerBounds);
+    }
+
+    // ============================================================
+    // Writes — one shard each
+    // ============================================================
+
+    @Override
+    public boolean insertTopic(Topic topic) {
+        boolean assigned = topic.getId() <= 0;
+        try {
+            if (assigned) {
+                topic.setId(ids.nextId());
+            }
+        } catch (SQLException e) {
+            Metrics.error("topicDao.insertTopic");
+            DatabaseConnection.reportFailure(e);
+            System.out.println("Error inserting topic: " + e.getMessage());
+            return false;
+        }
+        boolean success = shardFor(topic.getId()).insertTopic(topic);
+        if (!success && assigned) {
+            topic.setId(0);
+        }
+        return success;
+    }
+
+    /**
+     * Rows are grouped by shard, and the shards insert their groups at
+     * the same time. Failures are reported with their index in the
+     * original collection, as from a single database.
+     */
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        List<Topic> rows = new ArrayList<>(topics);
+        BatchResult result = new BatchResult(rows.size());
+        boolean[] assigned = new boolean[rows.size()];
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                Topic topic = rows.get(i);
+                if (topic.getId() <= 0) {
+                    topic.setId(ids.nextId());
+                    assigned[i] = true;
+                }
+            }
+        } catch (SQLException e) {
+            Metrics.error("topicDao.insertTopics");
+            DatabaseConnection.reportFailure(e);
+            System.out.println("Error inserting topics: " + e.getMessage());
+            for (int i = 0; i < rows.size(); i++) {
+                if (assigned[i]) {
+                    rows.get(i).setId(0);
+                }
+                result.recordFailure(i, rows.get(i), e.getMessage());
+            }
+            return result;
+        }
+
+        // Which original rows go to which shard
+        List<List<Integer>> indexes = new ArrayList<>();
+        for (int s = 0; s < shards.size(); s++) {
+            indexes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            indexes.get(router.shardOf(rows.get(i).getId())).add(i);
+        }
+        List<BatchResult> parts = scatter(shard -> {
+            List<Integer> mine = indexes.get(shards.indexOf(shard));
+            List<Topic> group = new ArrayList<>(mine.size());
+            for (int i : mine) {
+                group.add(rows.get(i));
+            }
+            return group.isEmpty() ? new BatchResult(0) : shard.insertTopics(group);
+        });
+
+        List<BatchResult.Failure> failures = new ArrayList<>();
+        for (int s = 0; s < parts.size(); s++) {
+            result.recordInserted(parts.get(s).getInserted());
+            for (BatchResult.Failure failure : parts.get(s).getFailures()) {
+                int original = indexes.get(s).get(failure.getIndex());
+                failures.add(new BatchResult.Failure(original, failure.getTopic(), failure.getMessage()));
+            }
+        }
+        failures.sort(Comparator.comparingInt(BatchResult.Failure::getIndex));
+        for (BatchResult.Failure failure : failures) {
+            if (assigned[failure.getIndex()]) {
+                failure.getTopic().setId(0);
+            }
+            result.recordFailure(failure.getIndex(), failure.getTopic(), failure.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        return shardFor(id).deleteTopic(id);
+    }
+
+    // ============================================================
+    // Reads — every shard at once, answers merged
+    // ============================================================
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        List<ArrayList<Topic>> parts = scatter(shard -> {
+            ArrayList<Topic> topics = shard.fetchAllTopics();
+            topics.sort(BY_ID);
+            return topics;
+        });
+        return merge(parts, BY_ID, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Each shard returns its first limit topics after lastId; the first
+     * limit of all of those are the page.
+     */
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        return merge(scatter(shard -> shard.fetchTopicsAfter(lastId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        String q = TopicSearchIndex.normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        return merge(scatter(shard -> shard.searchTopics(query, limit)), TopicSearchIndex.byRelevance(q), limit);
+    }
+
+    @Override
+    public ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        return merge(scatter(shard -> shard.fetchRecentlyUpdatedTopics(limit)), NEWEST_FIRST, limit);
+    }
+
+    @Override
+    public long countTopics() {
+        long total = 0;
+        for (long count : scatter(TopicDao::countTopics)) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        TreeMap<LocalDate, Long> perDay = new TreeMap<>();
+        for (LinkedHashMap<LocalDate, Long> part : scatter(shard -> shard.countTopicsCreatedPerDay(from))) {
+            part.forEach((day, count) -> perDay.merge(day, count, Long::sum));
+        }
+        return new LinkedHashMap<>(perDay);
+    }
+
+    /**
+     * Each shard's updated_at comes from its own server clock, so keep
+     * the clocks in sync (NTP); CachingTopicDao's sync overlap covers
+     * small differences.
+     */
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        TopicChanges changes = new TopicChanges(since);
+        for (TopicChanges part : scatter(shard -> shard.fetchTopicsChangedSince(since))) {
+            changes.addAll(part);
+        }
+        return changes;
+    }
+
+    /**
+     * One open cursor per shard, merged by id as the rows are read — in
+     * flat memory, however many topics there are.
+     */
+    @Override
+    public Stream<Topic> streamTopics() {
+        List<Stream<Topic>> streams = new ArrayList<>(shards.size());
+        for (TopicDao shard : shards) {
+            streams.add(shard.streamTopics());
+        }
+        Iterator<Topic> merged = new MergingIterator(streams, BY_ID);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        int count = 0;
+        try (Stream<Topic> topics = streamTopics()) {
+            Iterator<Topic> iterator = topics.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void flush() {
+        scatter(shard -> {
+            shard.flush();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        for (TopicDao shard : shards) {
+            shard.close();
+        }
+        executor.close();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    // ============================================================
+    // Scatter-gather
+    // ============================================================
+
+    private static final Comparator<Topic> BY_ID = Comparator.comparingInt(Topic::getId);
+    private static final Comparator<Topic> NEWEST_FIRST = Comparator.comparingLong(Topic::getUpdatedAtMillis)
+            .thenComparingInt(Topic::getId).reversed();
+
+    private TopicDao shardFor(int id) {
+        return shards.get(router.shardOf(id));
+    }
+
+    /**
+     * Run the call on every shard at the same time and wait for all of
+     * them. Answers come back in shard order. If a shard reported a
+     * failure (DatabaseConnection.reportFailure), it is passed on to
+     * this thread, so a ResilientTopicDao above still sees it.
+     */
+    private <T> List<T> scatter(Function<TopicDao, T> call) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        SQLException[] failures = new SQLException[shards.size()];
+        for (int i = 0; i < shards.size(); i++) {
+            TopicDao shard = shards.get(i);
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                T value = call.apply(shard);
+                failures[index] = DatabaseConnection.takeFailure();
+                return value;
+            }, executor));
+        }
+        List<T> answers = new ArrayList<>(shards.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                answers.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        for (SQLException failure : failures) {
+            if (failure != null) {
+                DatabaseConnection.reportFailure(failure);
+                break;
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * Merge the shards' lists in the given order, keeping the first
+     * limit topics (a k-way merge: only the heads are compared).
+     */
+    private static ArrayList<Topic> merge(List<? extends List<Topic>> parts, Comparator<Topic> order, int limit) {
+        List<Stream<Topic>> streams = new ArrayList<>(parts.size());
+        int total = 0;
+        for (List<Topic> part : parts) {
+            // Cheap when the shard already sorted it (one pass to check)
+            part.sort(order);
+            streams.add(part.stream());
+            total += part.size();
+        }
+        ArrayList<Topic> merged = new ArrayList<>(Math.min(total, limit));
+        Iterator<Topic> iterator = new MergingIterator(streams, order);
+        while (merged.size() < limit && iterator.hasNext()) {
+            merged.add(iterator.next());
+        }
+        return merged;
+    }
+
+    /**
+     * Walks several sorted streams as one sorted sequence, keeping just
+     * the current head of each in a priority queue.
+     */
+    private static final class MergingIterator implements Iterator<Topic> {
+
+        private final PriorityQueue<Head> heads;
+
+        private MergingIterator(List<Stream<Topic>> streams, Comparator<Topic> order) {
+            this.heads = new PriorityQueue<>(Math.max(1, streams.size()),
+                    (a, b) -> order.compare(a.topic, b.topic));
+            for (Stream<Topic> stream : streams) {
+                Iterator<Topic> source = stream.iterator();
+                if (source.hasNext()) {
+                    heads.add(new Head(source.next(), source));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Topic next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            if (head.source.hasNext()) {
+                heads.add(new Head(head.source.next(), head.source));
+            }
+            return head.topic;
+        }
+
+        private record Head(Topic topic, Iterator<Topic> source) {
+        }
+    }
+
+    // ============================================================
+    // Routing
+    // ============================================================
+
+    /**
+     * Which shard holds a topic id.
+     */
+    public interface Router {
+
+        /** @return 0 .. number of shards - 1 */
+        int shardOf(int id);
+
+        /**
+         * Spread ids evenly. Ids are mixed first, so consecutive ids
+         * (a block from TopicIdAllocator) don't all follow one pattern.
+         */
+        static Router hash(int shardCount) {
+            if (shardCount < 1) {
+                throw new IllegalArgumentException("shardCount must be at least 1");
+            }
+            return id -> {
+                int h = id * 0x9E3779B9;
+                return Math.floorMod(h ^ (h >>> 16), shardCount);
+            };
+        }
+
+        /**
+         * Shard i holds ids from lowerBounds[i] up to (not including)
+         * lowerBounds[i + 1]; the last shard holds everything above.
+         */
+        static Router ranges(int... lowerBounds) {
+            int[] bounds = lowerBounds.clone();
+            if (bounds.length == 0) {
+                throw new IllegalArgumentException("At least one range is needed");
+            }
+            for (int i = 1; i < bounds.length; i++) {
+                if (bounds[i] <= bounds[i - 1]) {
+                    throw new IllegalArgumentException("Range bounds must go up: " + Arrays.toString(bounds));
+                }
+            }
+            return id -> {
+                int at = Arrays.binarySearch(bounds, id);
+                return at >= 0 ? at : Math.max(0, -at - 2);
+            };
+        }
+    }
+}
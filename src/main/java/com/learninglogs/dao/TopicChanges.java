@@ -0,0 +1,81 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What changed in the topics table since a point in time — the answer
+ * to TopicDao.fetchTopicsChangedSince().
+ *
+ *   changed  → topics inserted or updated since then (current values)
+ *   deleted  → ids of topics deleted since then (from their tombstones)
+ *   latest   → the newest updated_at / deleted_at seen; pass it back in
+ *              next time to get only what changed after this call
+ *
+ * Applying the same changes twice is harmless (a topic is just stored
+ * again, a deleted id is removed again), which is what lets callers ask
+ * with a little overlap and never miss a row.
+ */
+public final class TopicChanges {
+
+    private final List<Topic> changed = new ArrayList<>();
+    private final List<Integer> deletedIds = new ArrayList<>();
+    private long latestMillis;
+
+    TopicChanges(Timestamp since) {
+        this.latestMillis = Topic.millisOf(since);
+    }
+
+    void addChanged(Topic topic) {
+        changed.add(topic);
+        latestMillis = Math.max(latestMillis, topic.getUpdatedAtMillis());
+    }
+
+    void addDeleted(int id, long deletedAtMillis) {
+        deletedIds.add(id);
+        latestMillis = Math.max(latestMillis, deletedAtMillis);
+    }
+
+    /** Merge in another part's changes (e.g. one shard's). */
+    void addAll(TopicChanges other) {
+        changed.addAll(other.changed);
+        deletedIds.addAll(other.deletedIds);
+        latestMillis = Math.max(latestMillis, other.latestMillis);
+    }
+
+    /** Inserted or updated topics, with their current values. */
+    public List<Topic> getChanged() {
+        return Collections.unmodifiableList(changed);
+    }
+
+    /** Ids of deleted topics. */
+    public List<Integer> getDeletedIds() {
+        return Collections.unmodifiableList(deletedIds);
+    }
+
+    /**
+     * The newest change time seen, or the "since" passed in when nothing
+     * changed (null if that was null too).
+     */
+    public Timestamp getLatest() {
+        return Topic.timestampOf(latestMillis);
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty();
+    }
+
+    /** Rows in this delta — what a sync actually had to read. */
+    public int size() {
+        return changed.size() + deletedIds.size();
+    }
+
+    @Override
+    public String toString() {
+        return changed.size() + " changed, " + deletedIds.size() + " deleted";
+    }
+}
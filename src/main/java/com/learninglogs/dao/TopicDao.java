@@ -1,15 +1,30 @@
 package com.learninglogs.dao;
 
 import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
 
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * ╔══════════════════════════════════════════════════════╗
  * ║       Topic DAO Interface                            ║
  * ║                                                      ║
- * ║   This file is PROVIDED for you. No changes needed!  ║
- * ║   Study it — then implement it in TopicDaoImpl.      ║
+ * ║   The contract every topic store implements:         ║
+ * ║   TopicDaoImpl (MySQL), the embedded log, and the    ║
+ * ║   decorators (cache, retries, ...) stacked on them.  ║
  * ╚══════════════════════════════════════════════════════╝
  *
  * What is a DAO?
@@ -29,6 +44,7 @@ public interface TopicDao {
 
     /**
      * Insert a new topic into the database.
+     * On success, the topic's generated id and timestamps are filled in.
      *
      * @param topic The Topic object to insert
      * @return true if inserted successfully, false otherwise
@@ -41,4 +57,255 @@ public interface TopicDao {
      * @return ArrayList of all Topic objects
      */
     ArrayList<Topic> fetchAllTopics();
+
+    /**
+     * Fetch one page of topics using keyset pagination.
+     *
+     * Instead of "skip N rows" (OFFSET, which gets slower the further you
+     * page), this asks for "the next rows after the last id I saw".
+     * The primary key index jumps straight there, so every page costs
+     * the same no matter how big the table is.
+     *
+     * @param lastId The id of the last topic on the previous page (0 for the first page)
+     * @param limit  Maximum number of topics to return
+     * @return up to limit topics with id greater than lastId, in id order
+     */
+    ArrayList<Topic> fetchTopicsAfter(int lastId, int limit);
+
+    /**
+     * Insert many topics at once, in a single transaction.
+     *
+     * Much faster than calling insertTopic() in a loop: rows are sent to
+     * the database in batches instead of one round trip per row.
+     * On success, every Topic gets its generated id and timestamps.
+     * If some rows are rejected, the others are still inserted and the
+     * result lists which rows failed and why.
+     *
+     * @param topics The Topic objects to insert
+     * @return a per-row report of what was inserted
+     */
+    BatchResult insertTopics(Collection<Topic> topics);
+
+    /**
+     * Delete a topic (and, through the foreign key, its entries).
+     *
+     * A "tombstone" — the id and the time of deletion — is kept, so
+     * fetchTopicsChangedSince() can tell other terminals the topic is gone.
+     * Backends that can't delete return false.
+     *
+     * @param id The id of the topic to delete
+     * @return true if the topic existed and was deleted
+     */
+    default boolean deleteTopic(int id) {
+        return false;
+    }
+
+    /**
+     * Visit every topic, one at a time, without building a list first.
+     *
+     * Implementations that talk to a real database stream rows as they
+     * arrive, so memory stays flat and the first row can be shown right
+     * away. The default just walks fetchAllTopics().
+     *
+     * @param action Called once per topic, in id order
+     * @return how many topics were visited
+     */
+    default int forEachTopic(Consumer<Topic> action) {
+        ArrayList<Topic> topics = fetchAllTopics();
+        topics.forEach(action);
+        return topics.size();
+    }
+
+    /**
+     * Stream all topics lazily.
+     *
+     * The stream may hold a database connection open, so ALWAYS close it:
+     *   try (Stream<Topic> topics = topicDao.streamTopics()) { ... }
+     *
+     * @return a Stream of all topics, in id order
+     */
+    default Stream<Topic> streamTopics() {
+        return fetchAllTopics().stream();
+    }
+
+    /**
+     * Read every topic into a compact TopicTable instead of a list of
+     * Topic objects — far less memory (and garbage collection work) for
+     * big tables. See TopicTable for how to read it.
+     *
+     * @return all topics, in id order
+     */
+    default TopicTable fetchTopicTable() {
+        TopicTable table = new TopicTable();
+        forEachTopic(table::add);
+        return table;
+    }
+
+    /**
+     * The same page as fetchTopicsAfter(), packed into a TopicTable.
+     *
+     * @return up to limit topics with id greater than lastId, in id order
+     */
+    default TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        ArrayList<Topic> topics = fetchTopicsAfter(lastId, limit);
+        TopicTable table = new TopicTable(topics.size());
+        topics.forEach(table::add);
+        return table;
+    }
+
+    /**
+     * Everything that changed since a point in time: inserted or updated
+     * topics, plus ids of deleted ones. See TopicChanges.
+     *
+     * A terminal that already holds a copy of the table asks for just
+     * this delta instead of re-reading every row, so a refresh costs
+     * O(changes), not O(table). The database answers from an index on
+     * updated_at.
+     *
+     * The default scans every topic and knows nothing about deletions;
+     * real backends override it.
+     *
+     * @param since Return changes at or after this time (null for everything)
+     * @return the changes, with getLatest() to pass in next time
+     */
+    default TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        TopicChanges changes = new TopicChanges(since);
+        long from = Topic.millisOf(since);
+        forEachTopic(topic -> {
+            if (topic.getUpdatedAtMillis() >= from) {
+                changes.addChanged(topic);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Search topic names.
+     *
+     * Matches names that start with, or contain, the query (ignoring
+     * case); a 1-letter query only matches names starting with it. Best
+     * matches come first: exact name, then names starting with the
+     * query, then names with a word starting with it, then any other
+     * match; shorter names win ties. Every backend follows
+     * TopicSearchIndex.score() for this.
+     *
+     * The default scans every topic; real backends use an index instead.
+     *
+     * @param query Text to look for
+     * @param limit Maximum number of results
+     * @return the best matches, best first
+     */
+    default ArrayList<Topic> searchTopics(String query, int limit) {
+        String q = TopicSearchIndex.normalize(query);
+        List<Topic> matches = new ArrayList<>();
+        if (q.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        forEachTopic(topic -> {
+            if (TopicSearchIndex.score(TopicSearchIndex.normalize(topic.getName()), q) > 0) {
+                matches.add(topic);
+            }
+        });
+        matches.sort(TopicSearchIndex.byRelevance(q));
+        return new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    // ============================================================
+    // Summaries
+    // ============================================================
+    // Counting topics by loading them all (fetchAllTopics().size())
+    // moves every row into Java just to throw it away. These methods
+    // ask for the ANSWER instead: real backends turn them into
+    // COUNT / GROUP BY / ORDER BY ... LIMIT queries, so only a handful
+    // of numbers come back, however big the table is.
+    //
+    // The defaults below scan every topic — correct everywhere, fast
+    // nowhere.
+    // ============================================================
+
+    /**
+     * @return how many topics there are
+     */
+    default long countTopics() {
+        return forEachTopic(topic -> { });
+    }
+
+    /**
+     * How many topics were created on each day, from a given day on.
+     * Days without new topics are left out.
+     *
+     * @param from The first day to count
+     * @return day → number of topics created that day, oldest day first
+     */
+    default LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        TreeMap<LocalDate, Long> perDay = new TreeMap<>();
+        forEachTopic(topic -> {
+            if (topic.getCreatedAt() != null) {
+                LocalDate day = topic.getCreatedAt().toLocalDateTime().toLocalDate();
+                if (!day.isBefore(from)) {
+                    perDay.merge(day, 1L, Long::sum);
+                }
+            }
+        });
+        return new LinkedHashMap<>(perDay);
+    }
+
+    /**
+     * Same as countTopicsCreatedPerDay(), added up per week. Weeks start
+     * on Monday and are keyed by that Monday.
+     *
+     * Built from the per-day counts (at most 7 rows per week), so it is
+     * as cheap as the per-day query.
+     *
+     * @param from Any day in the first week to count
+     * @return Monday of the week → topics created that week, oldest first
+     */
+    default LinkedHashMap<LocalDate, Long> countTopicsCreatedPerWeek(LocalDate from) {
+        LocalDate firstMonday = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LinkedHashMap<LocalDate, Long> perWeek = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, Long> day : countTopicsCreatedPerDay(firstMonday).entrySet()) {
+            LocalDate monday = day.getKey().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            perWeek.merge(monday, day.getValue(), Long::sum);
+        }
+        return perWeek;
+    }
+
+    /**
+     * The most recently updated topics.
+     *
+     * @param limit Maximum number of topics
+     * @return newest update first
+     */
+    default ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        Comparator<Topic> newestFirst = Comparator.comparingLong(Topic::getUpdatedAtMillis)
+                .thenComparingInt(Topic::getId).reversed();
+        // Keep only the best "limit" topics: the oldest of them sits on top
+        PriorityQueue<Topic> newest = new PriorityQueue<>(newestFirst.reversed());
+        if (limit > 0) {
+            forEachTopic(topic -> {
+                newest.add(topic);
+                if (newest.size() > limit) {
+                    newest.poll();
+                }
+            });
+        }
+        ArrayList<Topic> topics = new ArrayList<>(newest);
+        topics.sort(newestFirst);
+        return topics;
+    }
+
+    /**
+     * Wait until every write this DAO has accepted is actually stored.
+     * Only matters for DAOs that write in the background; the default
+     * does nothing because inserts are already finished when they return.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Release anything this DAO holds open (files, background threads).
+     * Called once when the app exits. The default does nothing.
+     */
+    default void close() {
+    }
 }
@@ -0,0 +1,172 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hands out topic ids that are unique across ALL shards.
+ *
+ * With sharding, each shard's topics table only holds some of the
+ * topics, so its AUTO_INCREMENT would happily give out id 1 on every
+ * shard. Instead, ids come from ONE shared counter:
+ *
+ *   inDatabase() → the topic_id_sequence row in the main database
+ *   inFile(path) → a small file next to the embedded shards
+ *
+ * Asking the counter for every single id would cost a round trip per
+ * insert, so ids are reserved in blocks (blockSize at a time) and then
+ * handed out from memory. Ids left over in a block when the program
+ * exits are skipped — ids stay unique, they just aren't gap-free (the
+ * same is true of AUTO_INCREMENT after a rollback).
+ */
+public abstract class TopicIdAllocator {
+
+    private final int blockSize;
+    private int next;
+    private int limit;
+
+    protected TopicIdAllocator(int blockSize) {
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Ids from the "topics" row of topic_id_sequence in the main database
+     * (see sql/learninglog.sql).
+     */
+    public static TopicIdAllocator inDatabase(int blockSize) {
+        return new DatabaseSequence(blockSize);
+    }
+
+    /**
+     * Ids from a counter file (created on first use). A reserved block
+     * is on disk before its first id is handed out, so a crash can't
+     * hand out the same ids again. Meant for the embedded shards, which
+     * one program uses at a time (each shard log is locked while open).
+     */
+    public static TopicIdAllocator inFile(Path file, int blockSize) {
+        return new FileSequence(file, blockSize);
+    }
+
+    /**
+     * The next unused id.
+     *
+     * @throws SQLException if a new block could not be reserved
+     */
+    public synchronized int nextId() throws SQLException {
+        if (next >= limit) {
+            int first = reserveBlock(blockSize);
+            next = first;
+            limit = first + blockSize;
+        }
+        return next++;
+    }
+
+    /**
+     * Move the shared counter on by size.
+     *
+     * @return the first id of the reserved block
+     */
+    protected abstract int reserveBlock(int size) throws SQLException;
+
+    private static int checkedEnd(int first, int size) throws SQLException {
+        if (first < 1 || first > Integer.MAX_VALUE - size) {
+            throw new SQLException("Topic ids are used up (next id " + first + ")");
+        }
+        return first + size;
+    }
+
+    private static final class DatabaseSequence extends TopicIdAllocator {
+
+        // The UPDATE locks the row until commit, so two programs can never
+        // read the same next_id
+        private static final String RESERVE_SQL =
+                "UPDATE topic_id_sequence SET next_id = next_id + ? WHERE name = 'topics'";
+        private static final String READ_SQL = "SELECT next_id FROM topic_id_sequence WHERE name = 'topics'";
+
+        private DatabaseSequence(int blockSize) {
+            super(blockSize);
+        }
+
+        @Override
+        protected int reserveBlock(int size) throws SQLException {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.getConnection();
+                conn.setAutoCommit(false);
+                try {
+                    PreparedStatement reserve = DatabaseConnection.prepareCached(conn, RESERVE_SQL);
+                    reserve.setInt(1, size);
+                    if (reserve.executeUpdate() != 1) {
+                        throw new SQLException("topic_id_sequence has no 'topics' row — run sql/learninglog.sql");
+                    }
+                    int end;
+                    try (ResultSet rs = DatabaseConnection.prepareCached(conn, READ_SQL).executeQuery()) {
+                        rs.next();
+                        end = rs.getInt(1);
+                    }
+                    conn.commit();
+                    int first = end - size;
+                    checkedEnd(first, size);
+                    return first;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } finally {
+                DatabaseConnection.closeConnection(conn);
+            }
+        }
+    }
+
+    private static final class FileSequence extends TopicIdAllocator {
+
+        private final Path file;
+
+        private FileSequence(Path file, int blockSize) {
+            super(blockSize);
+            this.file = file;
+        }
+
+        @Override
+        protected int reserveBlock(int size) throws SQLException {
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.lock();
+                    try {
+                        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 64));
+                        channel.read(buffer, 0);
+                        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+                        int first = text.isEmpty() ? 1 : Integer.parseInt(text);
+                        byte[] end = Integer.toString(checkedEnd(first, size)).getBytes(StandardCharsets.US_ASCII);
+                        channel.truncate(0);
+                        channel.write(ByteBuffer.wrap(end), 0);
+                        // On disk before any id of the block is used
+                        channel.force(true);
+                        return first;
+                    } finally {
+                        lock.release();
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                throw new SQLException("Cannot reserve topic ids in " + file + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
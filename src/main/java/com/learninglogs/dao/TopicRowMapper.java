@@ -0,0 +1,73 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Turns one ResultSet row into a Topic.
+ *
+ * Columns are read by POSITION, not by name. rs.getInt("id") makes the
+ * driver look the name up in the row's column list for every call; with
+ * a million rows and four columns that's four million lookups.
+ * rs.getInt(1) goes straight to the value.
+ *
+ * The price: every query using this mapper must select exactly
+ * {@link #COLUMNS}, in that order, as its first four columns.
+ *
+ * Timestamps are read as LocalDateTime and turned into epoch millis
+ * here, since Topic stores longs: rs.getTimestamp() would build a
+ * Timestamp (a Date plus nanos) per column per row just to be thrown
+ * away. The conversion uses the JVM's time zone, exactly like
+ * Timestamp.getTime() did.
+ */
+final class TopicRowMapper {
+
+    /** The column list every topic query starts with. */
+    static final String COLUMNS = "id, name, created_at, updated_at";
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int CREATED_AT = 3;
+    private static final int UPDATED_AT = 4;
+
+    private TopicRowMapper() {
+    }
+
+    static Topic map(ResultSet rs) throws SQLException {
+        return new Topic(
+            rs.getInt(ID),
+            rs.getString(NAME),
+            millisAt(rs, CREATED_AT),
+            millisAt(rs, UPDATED_AT)
+        );
+    }
+
+    /**
+     * Append the current row to a TopicTable — no Topic object is kept.
+     */
+    static void appendTo(TopicTable table, ResultSet rs) throws SQLException {
+        table.add(
+            rs.getInt(ID),
+            rs.getString(NAME),
+            millisAt(rs, CREATED_AT),
+            millisAt(rs, UPDATED_AT)
+        );
+    }
+
+    /**
+     * A TIMESTAMP column as epoch millis, or Topic.NO_TIME for NULL.
+     */
+    static long millisAt(ResultSet rs, int column) throws SQLException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        if (value == null) {
+            return Topic.NO_TIME;
+        }
+        long seconds = value.toEpochSecond(ZoneId.systemDefault().getRules().getOffset(value));
+        return seconds * 1000 + value.getNano() / 1_000_000;
+    }
+}
@@ -0,0 +1,310 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * An in-memory search index over topic names, for backends that have no
+ * SQL FULLTEXT index of their own (see EmbeddedTopicDao).
+ *
+ * Two structures are kept side by side:
+ *
+ *   1. A gram index — every 2- and 3-letter slice of every name points
+ *      to the ids that contain it:
+ *
+ *        "java" → "ja", "av", "va", "jav", "ava"
+ *        grams["ava"] = [1, 7, 42]   (ids, always in ascending order)
+ *
+ *      A query of 3+ letters is answered by intersecting the lists for
+ *      its trigrams (shortest list first), then checking the survivors.
+ *      A 2-letter query is its own bigram: one lookup gives every name
+ *      that contains it, so no query has to look at the whole table.
+ *
+ *   2. A sorted map of names, for 1-letter queries. Those are matched
+ *      as prefixes only — almost every name contains an "a".
+ *
+ * remove() takes a deleted topic out of both again.
+ *
+ * What matches, and how well, is defined ONCE, by
+ * {@link #score(String, String)}; every backend's searchTopics() follows
+ * it (TopicDaoImpl in SQL, see wordStartPattern()).
+ * Not thread-safe: callers synchronize.
+ */
+public class TopicSearchIndex {
+
+    /** Longest slice indexed; queries this long or longer intersect several lists. */
+    private static final int GRAM = 3;
+
+    /** Queries shorter than this only match at the start of a name. */
+    public static final int MIN_INFIX_LENGTH = 2;
+
+    /** 2- and 3-letter slice → ids of the names containing it. */
+    private final Map<String, IntList> grams = new HashMap<>();
+    private final TreeMap<String, IntList> namesInOrder = new TreeMap<>();
+    private final Map<Integer, String> namesById = new HashMap<>();
+
+    /**
+     * Index a topic. Ids usually arrive in ascending order (cheap append),
+     * but needn't: shards take preset ids that can race each other.
+     */
+    public void add(int id, String name) {
+        if (namesById.containsKey(id)) {
+            remove(id);
+        }
+        String key = normalize(name);
+        namesById.put(id, key);
+        namesInOrder.computeIfAbsent(key, k -> new IntList()).add(id);
+        for (int length = MIN_INFIX_LENGTH; length <= GRAM; length++) {
+            for (int i = 0; i + length <= key.length(); i++) {
+                // A slice that occurs twice in the name is stored once (add() ignores repeats)
+                grams.computeIfAbsent(key.substring(i, i + length), k -> new IntList()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Forget a topic (after it was deleted). Unknown ids are ignored.
+     */
+    public void remove(int id) {
+        String key = namesById.remove(id);
+        if (key == null) {
+            return;
+        }
+        removeFrom(namesInOrder, key, id);
+        for (int length = MIN_INFIX_LENGTH; length <= GRAM; length++) {
+            for (int i = 0; i + length <= key.length(); i++) {
+                removeFrom(grams, key.substring(i, i + length), id);
+            }
+        }
+    }
+
+    /**
+     * Find the best matching topic ids.
+     *
+     * @return up to limit ids, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        TopK best = new TopK(limit);
+        if (q.length() < MIN_INFIX_LENGTH) {
+            for (Map.Entry<String, IntList> entry : namesInOrder.subMap(q, q + Character.MAX_VALUE).entrySet()) {
+                double score = score(entry.getKey(), q);
+                IntList ids = entry.getValue();
+                for (int i = 0; i < ids.size; i++) {
+                    best.offer(ids.values[i], entry.getKey().length(), score);
+                }
+            }
+        } else if (q.length() < GRAM) {
+            IntList ids = grams.get(q);
+            for (int i = 0; ids != null && i < ids.size; i++) {
+                String name = namesById.get(ids.values[i]);
+                best.offer(ids.values[i], name.length(), score(name, q));
+            }
+        } else {
+            for (int id : candidates(q)) {
+                String name = namesById.get(id);
+                double score = score(name, q);
+                if (score > 0) {
+                    best.offer(id, name.length(), score);
+                }
+            }
+        }
+        return best.drain();
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    /**
+     * How well a name matches a query (both already normalized):
+     *   4 = exact, 3 = name starts with it, 2 = a word starts with it
+     *   (right after a character that is not a letter or digit),
+     *   1 = somewhere inside, 0 = no match.
+     * A query shorter than MIN_INFIX_LENGTH only matches at the start.
+     */
+    public static double score(String name, String query) {
+        if (name == null || query.isEmpty()) {
+            return 0;
+        }
+        if (name.equals(query)) {
+            return 4;
+        }
+        if (name.startsWith(query)) {
+            return 3;
+        }
+        if (query.length() < MIN_INFIX_LENGTH) {
+            return 0;
+        }
+        int at = name.indexOf(query);
+        if (at < 0) {
+            return 0;
+        }
+        while (at >= 0) {
+            if (!Character.isLetterOrDigit(name.charAt(at - 1))) {
+                return 2;
+            }
+            at = name.indexOf(query, at + 1);
+        }
+        return 1;
+    }
+
+    /**
+     * Best match first, the order searchTopics() promises: higher
+     * score(), then the shorter name, then the lower id.
+     *
+     * @param query already normalized
+     */
+    public static Comparator<Topic> byRelevance(String query) {
+        return Comparator
+                .comparingDouble((Topic topic) -> -score(normalize(topic.getName()), query))
+                .thenComparingInt(topic -> topic.getName().length())
+                .thenComparingInt(Topic::getId);
+    }
+
+    /**
+     * A regular expression that finds the query at the start of a word,
+     * the score() 2 rule, for SQL REGEXP_LIKE (MySQL 8 and H2 both
+     * understand it).
+     *
+     * @param query already normalized
+     */
+    public static String wordStartPattern(String query) {
+        return "[^\\p{L}\\p{Nd}]\\Q" + query.replace("\\E", "\\E\\\\E\\Q") + "\\E";
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <K> void removeFrom(Map<K, IntList> postings, K key, int id) {
+        IntList ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    /**
+     * Intersect the posting lists of every trigram in the query.
+     */
+    private int[] candidates(String q) {
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            IntList ids = grams.get(q.substring(i, i + GRAM));
+            if (ids == null) {
+                return new int[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int length = result.length;
+        for (int l = 1; l < lists.size() && length > 0; l++) {
+            IntList other = lists.get(l);
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < length; i++) {
+                int id = result[i];
+                j = other.seek(id, j);
+                if (j < other.size && other.values[j] == id) {
+                    result[kept++] = id;
+                }
+            }
+            length = kept;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /** Growable, ascending int array — far smaller than List<Integer>. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        /** Insert value at its sorted position; already present → no-op. */
+        private void add(int value) {
+            // Almost always the newest id: append without searching
+            int at = size == 0 || values[size - 1] < value ? size : seek(value, 0);
+            if (at < size && values[at] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = value;
+            size++;
+        }
+
+        /** Take value out; returns false if it wasn't there. */
+        private boolean remove(int value) {
+            int at = seek(value, 0);
+            if (at == size || values[at] != value) {
+                return false;
+            }
+            System.arraycopy(values, at + 1, values, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /** Index of the first value >= target, searching from "from". */
+        private int seek(int target, int from) {
+            int i = Arrays.binarySearch(values, from, size, target);
+            return i >= 0 ? i : -i - 1;
+        }
+    }
+
+    /**
+     * Keeps only the best "limit" results: higher score first, then
+     * shorter name, then lower id.
+     */
+    private static final class TopK {
+        private final int limit;
+        private final PriorityQueue<double[]> worstFirst = new PriorityQueue<>(
+                Comparator.<double[]>comparingDouble(hit -> hit[0])
+                        .thenComparing(hit -> -hit[1])
+                        .thenComparing(hit -> -hit[2]));
+
+        private TopK(int limit) {
+            this.limit = limit;
+        }
+
+        private void offer(int id, int nameLength, double score) {
+            if (worstFirst.size() == limit) {
+                // Full: most candidates of a common query lose to the worst kept one
+                double[] worst = worstFirst.peek();
+                if (score < worst[0] || (score == worst[0]
+                        && (nameLength > worst[1] || (nameLength == worst[1] && id > worst[2])))) {
+                    return;
+                }
+            }
+            worstFirst.add(new double[] {score, nameLength, id});
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+
+        private List<Integer> drain() {
+            List<Integer> ids = new ArrayList<>(worstFirst.size());
+            while (!worstFirst.isEmpty()) {
+                ids.add((int) worstFirst.poll()[2]);
+            }
+            Collections.reverse(ids);
+            return ids;
+        }
+    }
+}
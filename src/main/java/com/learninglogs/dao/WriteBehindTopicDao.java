@@ -0,0 +1,329 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.entity.TopicTable;
+import com.learninglogs.utils.AppConfig;
+import com.learninglogs.utils.DatabaseConnection;
+import com.learninglogs.utils.Metrics;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A TopicDao that saves new topics in the background.
+ *
+ * insertTopic() normally waits for a full database round trip. Here it
+ * only drops the topic into a queue and returns straight away; a
+ * background (virtual) thread takes whatever has piled up and writes it
+ * with ONE insertTopics() call:
+ *
+ *   insertTopic ─┐
+ *   insertTopic ─┼──▶ [ queue ] ──▶ writer thread ──▶ delegate.insertTopics(batch)
+ *   insertTopic ─┘
+ *
+ * Things to know:
+ *   - Backpressure: the queue is bounded. When it is full, insertTopic()
+ *     waits up to offerTimeout and then gives up (returns false).
+ *   - Need the generated id? Use insertTopicAsync() — its future
+ *     completes with the saved Topic once the batch is written.
+ *   - Reads call flush() first, so you always see your own inserts
+ *     (flush() also tells DatabaseConnection about the writer thread's
+ *     writes, so those reads aren't sent to a lagging replica).
+ *   - flush() / close() wait until everything queued has been written.
+ *     If the program ends without close() (Ctrl-C, or an exception out
+ *     of main), a shutdown hook still writes what is queued.
+ */
+public final class WriteBehindTopicDao implements TopicDao {
+
+    private final TopicDao delegate;
+    private final BlockingQueue<PendingInsert> queue;
+    private final int maxBatch;
+    private final long offerTimeoutMillis;
+    private final Thread writer;
+    private final Thread shutdownHook;
+
+    /** Accepted but not yet written inserts; guarded by this. */
+    private int outstanding;
+    /** No new inserts once set; written under this, with outstanding. */
+    private volatile boolean closed;
+    /** When the writer last finished a batch (System.nanoTime()), or 0. */
+    private volatile long lastBatchNanos;
+
+    public WriteBehindTopicDao(TopicDao delegate, int capacity, int maxBatch, long offerTimeoutMillis) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.writer = Thread.ofVirtual().name("topic-write-behind").start(this::drainLoop);
+        // The writer is a (daemon) virtual thread: without this, queued
+        // topics would be lost when the JVM exits
+        this.shutdownHook = new Thread(this::flush, "topic-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Wrap a TopicDao using the "learninglogs.writeBehind.*" settings.
+     */
+    public static WriteBehindTopicDao fromConfig(TopicDao delegate) {
+        return new WriteBehindTopicDao(delegate,
+                AppConfig.getInt("learninglogs.writeBehind.capacity", 10_000),
+                AppConfig.getInt("learninglogs.writeBehind.maxBatch", 500),
+                AppConfig.getLong("learninglogs.writeBehind.offerTimeoutMs", 5_000));
+    }
+
+    /**
+     * Queue a topic for saving.
+     *
+     * @return true once the topic is queued (not yet saved!),
+     *         false if the queue stayed full for too long
+     */
+    @Override
+    public boolean insertTopic(Topic topic) {
+        CompletableFuture<Topic> result = insertTopicAsync(topic);
+        return !result.isCompletedExceptionally();
+    }
+
+    /**
+     * Queue a topic for saving and get a future for the saved Topic
+     * (with its generated id and timestamps).
+     */
+    public CompletableFuture<Topic> insertTopicAsync(Topic topic) {
+        PendingInsert pending = new PendingInsert(topic);
+        // Checked together with the count, so close() either waits for
+        // this insert or this insert sees that the queue is closed
+        synchronized (this) {
+            if (closed) {
+                pending.result.completeExceptionally(new SQLException("Write-behind queue is closed"));
+                return pending.result;
+            }
+            outstanding++;
+        }
+        boolean queued;
+        try {
+            queued = queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            finished(1);
+            Metrics.error("writeBehind.queueFull");
+            System.out.println("Error inserting topic: write queue is full");
+            pending.result.completeExceptionally(new SQLException("Write-behind queue is full"));
+        }
+        return pending.result;
+    }
+
+    /**
+     * Bulk inserts already go to the database in batches, so they skip
+     * the queue (after letting queued single inserts go first).
+     */
+    @Override
+    public BatchResult insertTopics(Collection<Topic> topics) {
+        flush();
+        return delegate.insertTopics(topics);
+    }
+
+    @Override
+    public boolean deleteTopic(int id) {
+        // The topic may still be waiting in the queue
+        flush();
+        return delegate.deleteTopic(id);
+    }
+
+    @Override
+    public ArrayList<Topic> fetchAllTopics() {
+        flush();
+        return delegate.fetchAllTopics();
+    }
+
+    @Override
+    public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+        flush();
+        return delegate.fetchTopicsAfter(lastId, limit);
+    }
+
+    @Override
+    public int forEachTopic(Consumer<Topic> action) {
+        flush();
+        return delegate.forEachTopic(action);
+    }
+
+    @Override
+    public TopicTable fetchTopicTable() {
+        flush();
+        return delegate.fetchTopicTable();
+    }
+
+    @Override
+    public TopicTable fetchTopicTableAfter(int lastId, int limit) {
+        flush();
+        return delegate.fetchTopicTableAfter(lastId, limit);
+    }
+
+    @Override
+    public Stream<Topic> streamTopics() {
+        flush();
+        return delegate.streamTopics();
+    }
+
+    @Override
+    public TopicChanges fetchTopicsChangedSince(Timestamp since) {
+        flush();
+        return delegate.fetchTopicsChangedSince(since);
+    }
+
+    @Override
+    public long countTopics() {
+        flush();
+        return delegate.countTopics();
+    }
+
+    @Override
+    public LinkedHashMap<LocalDate, Long> countTopicsCreatedPerDay(LocalDate from) {
+        flush();
+        return delegate.countTopicsCreatedPerDay(from);
+    }
+
+    @Override
+    public ArrayList<Topic> fetchRecentlyUpdatedTopics(int limit) {
+        flush();
+        return delegate.fetchRecentlyUpdatedTopics(limit);
+    }
+
+    @Override
+    public ArrayList<Topic> searchTopics(String query, int limit) {
+        flush();
+        return delegate.searchTopics(query, limit);
+    }
+
+    /**
+     * Block until every queued topic has been written (or has failed).
+     */
+    @Override
+    public void flush() {
+        synchronized (this) {
+            while (outstanding > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        long written = lastBatchNanos;
+        if (written != 0) {
+            // The writes happened on the writer thread, on this thread's behalf
+            DatabaseConnection.markWriteAt(written);
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Write everything still queued, stop the writer thread, then close
+     * the wrapped DAO.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down — the hook is running or has run
+        }
+        // The queue is empty now, so the writer is waiting in take()
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    /**
+     * Number of topics accepted but not yet written.
+     */
+    public synchronized int getPendingCount() {
+        return outstanding;
+    }
+
+    private void drainLoop() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            // Coalesce: grab everything else that is already waiting
+            queue.drainTo(batch, maxBatch - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingInsert> batch) {
+        List<Topic> topics = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            topics.add(pending.topic);
+        }
+
+        try {
+            BatchResult result = delegate.insertTopics(topics);
+            boolean[] failed = new boolean[batch.size()];
+            for (BatchResult.Failure failure : result.getFailures()) {
+                failed[failure.getIndex()] = true;
+                Metrics.error("writeBehind.insert");
+                System.out.println("Error inserting topic: " + failure.getMessage());
+                batch.get(failure.getIndex()).result.completeExceptionally(new SQLException(failure.getMessage()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (!failed[i]) {
+                    batch.get(i).result.complete(batch.get(i).topic);
+                }
+            }
+        } catch (RuntimeException e) {
+            Metrics.error("writeBehind.insert");
+            System.out.println("Error inserting topics: " + e.getMessage());
+            for (PendingInsert pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        } finally {
+            lastBatchNanos = System.nanoTime();
+            finished(batch.size());
+        }
+    }
+
+    private synchronized void finished(int count) {
+        outstanding -= count;
+        notifyAll();
+    }
+
+    private static final class PendingInsert {
+        private final Topic topic;
+        private final CompletableFuture<Topic> result = new CompletableFuture<>();
+
+        private PendingInsert(Topic topic) {
+            this.topic = topic;
+        }
+    }
+}
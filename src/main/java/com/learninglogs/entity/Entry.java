@@ -0,0 +1,90 @@
+package com.learninglogs.entity;
+
+import java.sql.Timestamp;
+
+/**
+ * An Entry is one note you wrote about a Topic.
+ * This class maps to the `entries` table in your database:
+ *
+ *   ┌─────────────────────────────────────────────┐
+ *   │  entries table                               │
+ *   ├────────────┬────────────────────────────────┤
+ *   │ id         │ INT, AUTO_INCREMENT, PRIMARY KEY│
+ *   │ topic_id   │ INT, NOT NULL → topics(id)      │
+ *   │ text       │ TEXT, NOT NULL                  │
+ *   │ created_at │ TIMESTAMP                       │
+ *   │ updated_at │ TIMESTAMP                       │
+ *   └────────────┴────────────────────────────────┘
+ *
+ * topic_id is a FOREIGN KEY: every entry belongs to exactly one topic,
+ * and deleting the topic deletes its entries too (ON DELETE CASCADE).
+ */
+public class Entry {
+
+    private int id;
+    private int topicId;
+    private String text;
+    private Timestamp createdAt;
+    private Timestamp updatedAt;
+
+    /**
+     * Simple constructor for creating an entry to INSERT into the database.
+     * The database generates the id and timestamps.
+     */
+    public Entry(int topicId, String text) {
+        this.topicId = topicId;
+        this.text = text;
+    }
+
+    /**
+     * Full constructor for an entry READ from the database.
+     */
+    public Entry(int id, int topicId, String text, Timestamp createdAt, Timestamp updatedAt) {
+        this.id = id;
+        this.topicId = topicId;
+        this.text = text;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public int getTopicId() {
+        return this.topicId;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public Timestamp getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public Timestamp getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setUpdatedAt(Timestamp updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + id + "] " + text + " (Created: " + createdAt + ")";
+    }
+}
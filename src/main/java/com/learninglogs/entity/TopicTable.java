@@ -0,0 +1,271 @@
+package com.learninglogs.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Many topics packed into a few arrays — for big reads.
+ *
+ * An ArrayList<Topic> of a million rows is a million Topic objects plus
+ * a million name Strings (each with its own char/byte array). Here the
+ * same rows are stored column by column:
+ *
+ *   ids        int[]   [ 1,  2,  3, ...]
+ *   createdAt  long[]  [ms, ms, ms, ...]    (epoch millis, or Topic.NO_TIME)
+ *   updatedAt  long[]  [ms, ms, ms, ...]
+ *   names      char[]  "JavaSQLPython..."   one shared "arena"
+ *   nameEnds   int[]   [ 4,  7, 13, ...]    where each name stops
+ *
+ * That's five objects no matter how many rows there are, so the garbage
+ * collector has almost nothing to trace.
+ *
+ * Reading a row:
+ *   - getId(row), getCreatedAtMillis(row), appendName(row, sb) → no allocation
+ *   - getName(row) → one String
+ *   - getTopic(row) → a full, independent Topic copy
+ *   - for (TopicTable.Row r : table) → ONE Row object re-pointed at every
+ *     row (a "flyweight"). r.getName() is a CharSequence reading straight
+ *     from the names arena, so a whole loop creates no String at all.
+ *     Use the row right away; don't keep it (or its name) — both show
+ *     the next row's values after the loop moves on. Call r.toTopic() if
+ *     you need to keep one.
+ *
+ * Not thread-safe while being filled; safe to read from many threads
+ * once filling is done.
+ */
+public final class TopicTable implements Iterable<TopicTable.Row> {
+
+    private static final int AVERAGE_NAME_LENGTH = 16;
+
+    private int size;
+    private int[] ids;
+    private long[] createdAt;
+    private long[] updatedAt;
+    private int[] nameEnds;
+    private char[] names;
+    private int namesLength;
+
+    public TopicTable() {
+        this(16);
+    }
+
+    public TopicTable(int expectedRows) {
+        int rows = Math.max(1, expectedRows);
+        ids = new int[rows];
+        createdAt = new long[rows];
+        updatedAt = new long[rows];
+        nameEnds = new int[rows];
+        names = new char[rows * AVERAGE_NAME_LENGTH];
+    }
+
+    /**
+     * Append a row. A null name is stored as "".
+     */
+    public void add(int id, CharSequence name, long createdAtMillis, long updatedAtMillis) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            nameEnds = Arrays.copyOf(nameEnds, capacity);
+        }
+        int length = name == null ? 0 : name.length();
+        if (namesLength + length > names.length) {
+            names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + length));
+        }
+        for (int i = 0; i < length; i++) {
+            names[namesLength + i] = name.charAt(i);
+        }
+        namesLength += length;
+
+        ids[size] = id;
+        createdAt[size] = createdAtMillis;
+        updatedAt[size] = updatedAtMillis;
+        nameEnds[size] = namesLength;
+        size++;
+    }
+
+    public void add(Topic topic) {
+        add(topic.getId(), topic.getName(), topic.getCreatedAtMillis(), topic.getUpdatedAtMillis());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    public String getName(int row) {
+        checkRow(row);
+        int start = nameStart(row);
+        return new String(names, start, nameEnds[row] - start);
+    }
+
+    /**
+     * Copy a row's name into a StringBuilder without creating a String.
+     */
+    public StringBuilder appendName(int row, StringBuilder out) {
+        checkRow(row);
+        int start = nameStart(row);
+        return out.append(names, start, nameEnds[row] - start);
+    }
+
+    public long getCreatedAtMillis(int row) {
+        checkRow(row);
+        return createdAt[row];
+    }
+
+    public long getUpdatedAtMillis(int row) {
+        checkRow(row);
+        return updatedAt[row];
+    }
+
+    /**
+     * A new Topic with this row's values — safe to keep.
+     */
+    public Topic getTopic(int row) {
+        return new Topic(getId(row), getName(row), createdAt[row], updatedAt[row]);
+    }
+
+    /**
+     * Every row as its own Topic (for code that needs a List).
+     */
+    public ArrayList<Topic> toList() {
+        ArrayList<Topic> topics = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            topics.add(getTopic(row));
+        }
+        return topics;
+    }
+
+    /**
+     * Walk the rows with one reused Row (see the class comment).
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<>() {
+            private final Row view = new Row();
+
+            @Override
+            public boolean hasNext() {
+                return view.row + 1 < size;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                view.row++;
+                return view;
+            }
+        };
+    }
+
+    /**
+     * Release the spare room left over from growing. Call once the table
+     * is full if it is going to be kept around.
+     */
+    public void trimToSize() {
+        ids = Arrays.copyOf(ids, Math.max(1, size));
+        createdAt = Arrays.copyOf(createdAt, Math.max(1, size));
+        updatedAt = Arrays.copyOf(updatedAt, Math.max(1, size));
+        nameEnds = Arrays.copyOf(nameEnds, Math.max(1, size));
+        names = Arrays.copyOf(names, namesLength);
+    }
+
+    /**
+     * Rough heap size of the arrays, in bytes (headers ignored).
+     */
+    public long estimatedBytes() {
+        return 4L * ids.length + 8L * createdAt.length + 8L * updatedAt.length
+                + 4L * nameEnds.length + 2L * names.length;
+    }
+
+    /**
+     * One row of the table, seen through the iterator. Every getter reads
+     * the table's arrays; nothing is copied.
+     */
+    public final class Row {
+        private int row = -1;
+        private final Name name = new Name();
+
+        public int getId() {
+            return ids[row];
+        }
+
+        /** The name, read in place from the arena. Valid until the next row. */
+        public CharSequence getName() {
+            name.start = nameStart(row);
+            name.end = nameEnds[row];
+            return name;
+        }
+
+        public long getCreatedAtMillis() {
+            return createdAt[row];
+        }
+
+        public long getUpdatedAtMillis() {
+            return updatedAt[row];
+        }
+
+        /** A new Topic with this row's values — safe to keep. */
+        public Topic toTopic() {
+            return getTopic(row);
+        }
+
+        /** Same text as Topic.toString(). */
+        @Override
+        public String toString() {
+            return "[" + getId() + "] " + getName() + " (Created: " + Topic.timestampOf(getCreatedAtMillis()) + ")";
+        }
+    }
+
+    /** A window onto the names arena. */
+    private final class Name implements CharSequence {
+        private int start;
+        private int end;
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + (end - start));
+            }
+            return names[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            return new String(names, start, end - start);
+        }
+    }
+
+    private int nameStart(int row) {
+        return row == 0 ? 0 : nameEnds[row - 1];
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+}
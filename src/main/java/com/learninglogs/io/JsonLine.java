@@ -0,0 +1,147 @@
+package com.learninglogs.io;
+
+/**
+ * Just enough JSON to read one flat object per line: finds a top-level
+ * string field and decodes it. Other fields (numbers, nested objects,
+ * arrays) are skipped without being built.
+ */
+final class JsonLine {
+
+    private final String text;
+    private int pos;
+
+    private JsonLine(String text) {
+        this.text = text;
+    }
+
+    /**
+     * The value of a top-level string field, or null if the field is
+     * missing or JSON null.
+     *
+     * @throws IllegalArgumentException if the line is not a JSON object
+     */
+    static String stringField(String line, String field) {
+        JsonLine json = new JsonLine(line);
+        json.skipSpace();
+        json.expect('{');
+        json.skipSpace();
+        if (json.peek() == '}') {
+            return null;
+        }
+        while (true) {
+            json.skipSpace();
+            String key = json.readString();
+            json.skipSpace();
+            json.expect(':');
+            json.skipSpace();
+            if (key.equals(field)) {
+                if (json.text.startsWith("null", json.pos)) {
+                    return null;
+                }
+                return json.readString();
+            }
+            json.skipValue();
+            json.skipSpace();
+            char c = json.next();
+            if (c == '}') {
+                return null;
+            }
+            if (c != ',') {
+                throw json.error("expected , or }");
+            }
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = null;
+        int start = pos;
+        while (true) {
+            if (pos >= text.length()) {
+                throw error("unterminated string");
+            }
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return value == null ? text.substring(start, pos - 1) : value.toString();
+            }
+            if (c == '\\') {
+                if (value == null) {
+                    value = new StringBuilder().append(text, start, pos - 1);
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("bad \\u escape");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            } else if (value != null) {
+                value.append(c);
+            }
+        }
+    }
+
+    private void skipValue() {
+        char c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                char d = peek();
+                if (d == '"') {
+                    readString();
+                    continue;
+                }
+                pos++;
+                if (d == '{' || d == '[') {
+                    depth++;
+                } else if (d == '}' || d == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            while (pos < text.length() && ",}] \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+        }
+    }
+
+    private void skipSpace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw error("unexpected end of line");
+        }
+        return text.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char wanted) {
+        if (next() != wanted) {
+            throw error("expected " + wanted);
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at column " + (pos + 1));
+    }
+}
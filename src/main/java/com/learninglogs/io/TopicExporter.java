@@ -0,0 +1,73 @@
+package com.learninglogs.io;
+
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.utils.DatabaseConnection;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+
+/**
+ * Writes every topic to a CSV or NDJSON file (see TopicFormat).
+ *
+ * Rows go from TopicDao.forEachTopic() — a streaming database cursor for
+ * the MySQL backend — straight into a large write buffer. No list of
+ * topics is ever built, so a table of any size exports in flat memory.
+ *
+ * The file is written as "name.part" first and renamed at the end, so
+ * a crash never leaves a half-written file under the real name. If the
+ * database fails partway through (the DAO reports it through
+ * DatabaseConnection.takeFailure()), the .part file is deleted too.
+ */
+public final class TopicExporter {
+
+    private static final int BUFFER_CHARS = 1 << 20;
+
+    private TopicExporter() {
+    }
+
+    /**
+     * @return how many topics were written
+     * @throws IOException if the file can't be written, or the topics
+     *                     could not all be read
+     */
+    public static long export(TopicDao topicDao, Path file) throws IOException {
+        TopicFormat format = TopicFormat.of(file);
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path partial = absolute.resolveSibling(absolute.getFileName() + ".part");
+
+        long count;
+        DatabaseConnection.takeFailure();
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(partial), StandardCharsets.UTF_8), BUFFER_CHARS)) {
+            format.writeHeader(out);
+            count = topicDao.forEachTopic(topic -> {
+                try {
+                    format.write(out, topic);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(partial);
+            throw e.getCause();
+        }
+        SQLException failure = DatabaseConnection.takeFailure();
+        if (failure != null) {
+            Files.deleteIfExists(partial);
+            throw new IOException("reading topics failed after " + count + " row(s): " + failure.getMessage(), failure);
+        }
+        Files.move(partial, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+}
@@ -0,0 +1,211 @@
+package com.learninglogs.io;
+
+import com.learninglogs.entity.Topic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The two file formats topics can be imported from / exported to.
+ *
+ *   CSV    id,name,created_at,updated_at
+ *          1,Java Basics,2026-02-24 10:30:00.0,2026-02-24 10:30:00.0
+ *          2,"Commas, and ""quotes""",...
+ *
+ *   NDJSON {"id":1,"name":"Java Basics","created_at":"...","updated_at":"..."}
+ *          (one JSON object per line)
+ *
+ * On import only the name is used — the database hands out new ids and
+ * timestamps, like for any other insert.
+ */
+public enum TopicFormat {
+
+    CSV {
+        @Override
+        public void writeHeader(Appendable out) throws IOException {
+            out.append("id,name,created_at,updated_at\n");
+        }
+
+        @Override
+        public void write(Appendable out, Topic topic) throws IOException {
+            out.append(Integer.toString(topic.getId())).append(',');
+            appendCsv(out, topic.getName());
+            out.append(',').append(timeText(topic.getCreatedAtMillis()))
+                    .append(',').append(timeText(topic.getUpdatedAtMillis())).append('\n');
+        }
+
+        @Override
+        public int nameColumn(String firstRecord) {
+            String[] columns = firstRecord.split(",");
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].trim().replace("\"", "").equalsIgnoreCase("name")) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public String parseName(String record, int nameColumn) {
+            int column = 0;
+            int i = 0;
+            int length = record.length();
+            while (i <= length) {
+                StringBuilder field = column == nameColumn ? new StringBuilder() : null;
+                if (i < length && record.charAt(i) == '"') {
+                    // Quoted field: "" inside means one "
+                    i++;
+                    while (true) {
+                        if (i >= length) {
+                            throw new IllegalArgumentException("unterminated quoted field");
+                        }
+                        char c = record.charAt(i++);
+                        if (c == '"') {
+                            if (i < length && record.charAt(i) == '"') {
+                                i++;
+                            } else {
+                                break;
+                            }
+                        }
+                        if (field != null) {
+                            field.append(c);
+                        }
+                    }
+                    if (i < length && record.charAt(i) != ',') {
+                        throw new IllegalArgumentException("unexpected text after quoted field");
+                    }
+                } else {
+                    int end = record.indexOf(',', i);
+                    if (end < 0) {
+                        end = length;
+                    }
+                    if (field != null) {
+                        field.append(record, i, end);
+                    }
+                    i = end;
+                }
+                if (field != null) {
+                    return field.toString();
+                }
+                column++;
+                i++; // skip the comma
+            }
+            throw new IllegalArgumentException("missing column " + (nameColumn + 1));
+        }
+
+        @Override
+        boolean quotesSpanLines() {
+            return true;
+        }
+    },
+
+    NDJSON {
+        @Override
+        public void writeHeader(Appendable out) {
+        }
+
+        @Override
+        public void write(Appendable out, Topic topic) throws IOException {
+            out.append("{\"id\":").append(Integer.toString(topic.getId())).append(",\"name\":");
+            appendJson(out, topic.getName());
+            out.append(",\"created_at\":");
+            appendJson(out, timeText(topic.getCreatedAtMillis()));
+            out.append(",\"updated_at\":");
+            appendJson(out, timeText(topic.getUpdatedAtMillis()));
+            out.append("}\n");
+        }
+
+        @Override
+        public int nameColumn(String firstRecord) {
+            return -1;
+        }
+
+        @Override
+        public String parseName(String record, int nameColumn) {
+            return JsonLine.stringField(record, "name");
+        }
+
+        @Override
+        boolean quotesSpanLines() {
+            return false;
+        }
+    };
+
+    /** Write whatever goes before the first topic (the CSV header). */
+    public abstract void writeHeader(Appendable out) throws IOException;
+
+    /** Write one topic as one record. */
+    public abstract void write(Appendable out, Topic topic) throws IOException;
+
+    /**
+     * If the first record is a header, the index of its "name" column;
+     * otherwise -1 (and column 0 is taken as the name).
+     */
+    public abstract int nameColumn(String firstRecord);
+
+    /**
+     * Pull the topic name out of one record.
+     *
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    public abstract String parseName(String record, int nameColumn);
+
+    /** Can a quoted value contain a line break (so "\n" is not always a record end)? */
+    abstract boolean quotesSpanLines();
+
+    /**
+     * Pick the format from the file extension (.csv, .ndjson, .jsonl, .json).
+     */
+    public static TopicFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unknown file type (use .csv or .ndjson): " + file);
+    }
+
+    private static String timeText(long millis) {
+        return millis == Topic.NO_TIME ? "" : Topic.timestampOf(millis).toString();
+    }
+
+    private static void appendCsv(Appendable out, String value) throws IOException {
+        String text = value == null ? "" : value;
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote && !text.isEmpty() && text.trim().length() == text.length()) {
+            out.append(text);
+            return;
+        }
+        out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void appendJson(Appendable out, String value) throws IOException {
+        out.append('"');
+        String text = value == null ? "" : value;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,336 @@
+package com.learninglogs.io;
+
+import com.learninglogs.dao.BatchResult;
+import com.learninglogs.dao.TopicDao;
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.AppConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads topics from a CSV or NDJSON file (see TopicFormat), fast and in
+ * bounded memory, whatever the file size.
+ *
+ * Three stages run at the same time:
+ *
+ *   reader thread        parser threads (one per core)      calling thread
+ *   ─────────────        ─────────────────────────────      ──────────────
+ *   read 4 MB chunk  ──▶ bytes → records → Topic objects ──▶ insertTopics(chunk)
+ *   cut at the last      (chunks parsed in parallel)         (batched, in file order)
+ *   complete record
+ *
+ *   - The reader cuts every chunk right after a record end, so no
+ *     record is ever split between two parsers.
+ *   - At most 2 × threads chunks are waiting at any moment; when the
+ *     database is the bottleneck the reader simply waits. Memory use is
+ *     therefore about (3 × threads + 1) × chunk size, never the file size.
+ *   - Chunks are inserted in file order, so topic ids follow the file.
+ *   - Bad records don't stop the import: they are counted and the first
+ *     few are reported (with their record number) in the ImportResult.
+ */
+public class TopicImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final TopicDao topicDao;
+    private final int threads;
+    private final int chunkBytes;
+
+    public TopicImporter(TopicDao topicDao, int threads, int chunkBytes) {
+        this.topicDao = topicDao;
+        this.threads = Math.max(1, threads);
+        this.chunkBytes = Math.max(1024, chunkBytes);
+    }
+
+    /**
+     * Use "learninglogs.import.threads" (default: one per core) and
+     * "learninglogs.import.chunkBytes" (default 4 MB).
+     */
+    public static TopicImporter fromConfig(TopicDao topicDao) {
+        return new TopicImporter(topicDao,
+                AppConfig.getInt("learninglogs.import.threads", Runtime.getRuntime().availableProcessors()),
+                AppConfig.getInt("learninglogs.import.chunkBytes", 4 << 20));
+    }
+
+    public ImportResult importFile(Path file) throws IOException {
+        TopicFormat format = TopicFormat.of(file);
+        ImportResult result = new ImportResult();
+        BlockingQueue<Future<ParsedChunk>> inOrder = new ArrayBlockingQueue<>(threads * 2);
+        ExecutorService parsers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "topic-import-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ChunkReader chunkReader = new ChunkReader(file, format, parsers, inOrder);
+        Thread reader = Thread.ofPlatform().name("topic-import-reader").daemon().start(chunkReader);
+
+        try {
+            while (true) {
+                ParsedChunk chunk = inOrder.take().get();
+                if (chunk == ParsedChunk.END) {
+                    break;
+                }
+                write(chunk, result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+        } finally {
+            reader.interrupt();
+            parsers.shutdownNow();
+        }
+        return result;
+    }
+
+    private void write(ParsedChunk chunk, ImportResult result) {
+        result.records += chunk.records;
+        for (String error : chunk.errors) {
+            result.fail(error);
+        }
+        if (chunk.topics.isEmpty()) {
+            return;
+        }
+        BatchResult batch = topicDao.insertTopics(chunk.topics);
+        result.inserted += batch.getInserted();
+        for (BatchResult.Failure failure : batch.getFailures()) {
+            result.fail("record " + chunk.recordNumbers[failure.getIndex()] + ": " + failure.getMessage());
+        }
+    }
+
+    /**
+     * Reads the file in chunks and hands each one to a parser.
+     */
+    private final class ChunkReader implements Runnable {
+        private final Path file;
+        private final TopicFormat format;
+        private final ExecutorService parsers;
+        private final BlockingQueue<Future<ParsedChunk>> inOrder;
+
+        private ChunkReader(Path file, TopicFormat format, ExecutorService parsers,
+                            BlockingQueue<Future<ParsedChunk>> inOrder) {
+            this.file = file;
+            this.format = format;
+            this.parsers = parsers;
+            this.inOrder = inOrder;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    readChunks();
+                } catch (IOException | RuntimeException e) {
+                    inOrder.put(CompletableFuture.failedFuture(e));
+                    return;
+                }
+                inOrder.put(CompletableFuture.completedFuture(ParsedChunk.END));
+            } catch (InterruptedException e) {
+                // The importer gave up; nothing left to do
+            }
+        }
+
+        private void readChunks() throws IOException, InterruptedException {
+            boolean csv = format.quotesSpanLines();
+            long nextRecord = 1;
+            int nameColumn = -1;
+            boolean firstChunk = true;
+            byte[] buffer = new byte[chunkBytes];
+            int filled = 0;
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                boolean eof = false;
+                while (!eof || filled > 0) {
+                    if (!eof && filled < buffer.length) {
+                        int n = channel.read(ByteBuffer.wrap(buffer, filled, buffer.length - filled));
+                        if (n < 0) {
+                            eof = true;
+                        } else {
+                            filled += n;
+                            continue;
+                        }
+                    }
+
+                    // Find the end of the last complete record in the buffer
+                    int end = -1;
+                    int records = 0;
+                    boolean quoted = false;
+                    for (int i = 0; i < filled; i++) {
+                        byte b = buffer[i];
+                        if (b == '"' && csv) {
+                            quoted = !quoted;
+                        } else if (b == '\n' && !quoted) {
+                            end = i + 1;
+                            records++;
+                        }
+                    }
+                    if (eof && end < filled) {
+                        // The last line may have no newline
+                        end = filled;
+                        records++;
+                    } else if (end < 0) {
+                        // One record bigger than the buffer: make room and keep reading
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                        continue;
+                    }
+
+                    int start = 0;
+                    if (firstChunk) {
+                        firstChunk = false;
+                        start = skipBom(buffer);
+                        int firstEnd = firstRecordEnd(buffer, start, end, csv);
+                        String first = new String(buffer, start, firstEnd - start, StandardCharsets.UTF_8).strip();
+                        nameColumn = format.nameColumn(first);
+                        if (nameColumn >= 0) {
+                            start = firstEnd;
+                            records--;
+                            nextRecord = 2;
+                        }
+                    }
+
+                    byte[] chunk = buffer;
+                    int chunkStart = start;
+                    int chunkEnd = end;
+                    long firstRecord = nextRecord;
+                    int column = Math.max(0, nameColumn);
+                    inOrder.put(parsers.submit(() -> parse(chunk, chunkStart, chunkEnd, firstRecord, column)));
+                    nextRecord += records;
+
+                    // The leftover (start of the next record) moves to a fresh buffer
+                    byte[] next = new byte[Math.max(chunkBytes, filled - end)];
+                    System.arraycopy(buffer, end, next, 0, filled - end);
+                    filled -= end;
+                    buffer = next;
+                }
+            }
+        }
+
+        private ParsedChunk parse(byte[] bytes, int start, int end, long firstRecord, int nameColumn) {
+            String text = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            boolean csv = format.quotesSpanLines();
+            ParsedChunk chunk = new ParsedChunk();
+            List<Long> numbers = new ArrayList<>();
+            long recordNumber = firstRecord;
+            int from = 0;
+            boolean quoted = false;
+            for (int i = 0; i <= text.length(); i++) {
+                char c = i < text.length() ? text.charAt(i) : '\n';
+                if (c == '"' && csv) {
+                    quoted = !quoted;
+                    continue;
+                }
+                if (c != '\n' || (quoted && i < text.length())) {
+                    continue;
+                }
+                if (i == text.length() && from == i) {
+                    break;
+                }
+                int to = i > from && text.charAt(i - 1) == '\r' ? i - 1 : i;
+                String record = text.substring(from, to);
+                from = i + 1;
+                quoted = false;
+                if (record.isBlank()) {
+                    recordNumber++;
+                    continue;
+                }
+                chunk.records++;
+                try {
+                    String name = format.parseName(record, nameColumn);
+                    if (name == null || name.isBlank()) {
+                        throw new IllegalArgumentException("missing name");
+                    }
+                    chunk.topics.add(new Topic(name));
+                    numbers.add(recordNumber);
+                } catch (IllegalArgumentException e) {
+                    chunk.errors.add("record " + recordNumber + ": " + e.getMessage());
+                }
+                recordNumber++;
+            }
+            chunk.recordNumbers = numbers.stream().mapToLong(Long::longValue).toArray();
+            return chunk;
+        }
+    }
+
+    private static int skipBom(byte[] buffer) {
+        return buffer.length >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB
+                && (buffer[2] & 0xFF) == 0xBF ? 3 : 0;
+    }
+
+    private static int firstRecordEnd(byte[] buffer, int start, int end, boolean csv) {
+        boolean quoted = false;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == '"' && csv) {
+                quoted = !quoted;
+            } else if (buffer[i] == '\n' && !quoted) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    private static final class ParsedChunk {
+        private static final ParsedChunk END = new ParsedChunk();
+
+        private final List<Topic> topics = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private long[] recordNumbers = new long[0];
+        private long records;
+    }
+
+    /**
+     * What an import did.
+     */
+    public static final class ImportResult {
+        private long records;
+        private long inserted;
+        private long failed;
+        private final List<String> errors = new ArrayList<>();
+
+        private void fail(String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        /** Records read from the file (blank lines and the header not counted). */
+        public long getRecords() {
+            return records;
+        }
+
+        public long getInserted() {
+            return inserted;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /** The first few failures, e.g. "record 17: missing name". */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return "Imported " + inserted + " of " + records + " record(s), " + failed + " failed";
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.learninglogs.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Central place for tunable settings.
+ *
+ * Settings are looked up in this order (first match wins):
+ *   1. JVM system properties        → -Dlearninglogs.pool.maxSize=20
+ *   2. ./learninglogs.properties    → a file next to where you run the app
+ *   3. learninglogs.properties on the classpath (src/main/resources)
+ *   4. The default passed in by the caller
+ *
+ * Every key starts with "learninglogs." so it never clashes with
+ * settings that belong to the JDK or the MySQL driver.
+ */
+public final class AppConfig {
+
+    private static final String FILE_NAME = "learninglogs.properties";
+    private static final Properties FILE_PROPERTIES = load();
+
+    private AppConfig() {
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = FILE_PROPERTIES.getProperty(key);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+
+        try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream(FILE_NAME)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading classpath " + FILE_NAME + ": " + e.getMessage());
+        }
+
+        // A file in the working directory overrides the bundled defaults
+        Path localFile = Path.of(FILE_NAME);
+        if (Files.isRegularFile(localFile)) {
+            try (Reader reader = Files.newBufferedReader(localFile)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                System.out.println("Error reading " + localFile.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+}
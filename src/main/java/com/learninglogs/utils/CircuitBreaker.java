@@ -0,0 +1,111 @@
+package com.learninglogs.utils;
+
+/**
+ * A circuit breaker: stop calling something that keeps failing, and try
+ * it again a little later.
+ *
+ *   CLOSED    → normal. Calls go through; consecutive failures are counted.
+ *   OPEN      → after failureThreshold failures in a row. Calls are
+ *               refused at once (allowRequest() is false) for openMillis,
+ *               so nobody waits on a database that isn't answering.
+ *   HALF_OPEN → after openMillis, ONE trial call is let through. If it
+ *               works the breaker closes; if it fails it opens again.
+ *
+ * Thread-safe. The breaker only keeps score — callers ask allowRequest()
+ * before a call and report recordSuccess() / recordFailure() after it.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long timesOpened;
+
+    /**
+     * @param failureThreshold failures in a row that open the breaker
+     * @param openMillis       how long to refuse calls before trying again
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = Math.max(0, openMillis) * 1_000_000L;
+    }
+
+    /**
+     * May a call go ahead now? Once openMillis have passed, the first
+     * caller gets the half-open trial and everyone else is still refused
+     * until it reports back.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            System.out.println("✓ " + name + " is responding again");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                System.out.println("⚠ " + name + " is not responding — pausing calls for "
+                        + openNanos / 1_000_000 + " ms");
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            timesOpened++;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    /** How many times the breaker has opened — a gauge for StatsMenu. */
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
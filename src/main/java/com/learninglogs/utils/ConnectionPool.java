@@ -0,0 +1,837 @@
+package com.learninglogs.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small, bounded pool of JDBC connections.
+ *
+ * Opening a MySQL connection means a TCP handshake plus authentication,
+ * which often costs more than the query we want to run. The pool keeps
+ * a handful of connections open and lends them out again and again:
+ *
+ *   borrow()  → hands out an idle connection (or opens one if below maxSize)
+ *   release() → puts the connection back so the next caller can reuse it
+ *
+ * Rules the pool follows:
+ *   - Never more than maxSize connections exist at once
+ *   - Callers wait for at most acquireTimeout, and are served strictly in
+ *     arrival order: a released connection goes straight to the caller
+ *     that has waited longest, never to one that just showed up
+ *   - A connection is validated before it is handed out, unless it was
+ *     used moments ago
+ *   - Idle connections are closed after idleTimeout, and every connection
+ *     is recycled once it is older than maxLifetime
+ *   - Each connection keeps its own small cache of prepared statements
+ *     (see prepare()), so hot SQL is only prepared once per connection
+ *   - Statements from prepare() carry a query timeout, so a stuck query
+ *     fails after queryTimeoutSeconds instead of blocking forever
+ *   - A connection borrowed with a deadline (borrow(long)) waits, queries
+ *     and reads from the network no longer than that deadline allows
+ */
+public class ConnectionPool {
+
+    /** A connection used this recently is trusted without a validation round trip. */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Settings settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    /** Handle given to the borrower → its lease; see borrow(). */
+    private final Map<Connection, Lease> borrowed = new IdentityHashMap<>();
+    private final ScheduledExecutorService housekeeper;
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    // All counters below are guarded by lock
+    private int pending;
+    private boolean closed;
+    private long totalCreated;
+    private long totalDestroyed;
+    private long borrowCount;
+    private long timeoutCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public ConnectionPool(String url, String user, String password, Settings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = settings.getHousekeepingMillis();
+        housekeeper.scheduleWithFixedDelay(this::evictStale, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool.
+     *
+     * What you get is a handle to one of the pool's connections that is
+     * only valid until you give it back: release() or close() returns it,
+     * and any later call on it fails (closing it again does nothing).
+     *
+     * @return an open, validated connection — give it back with release()
+     * @throws SQLException if no connection became available within the
+     *                      acquire timeout, or a new one could not be opened
+     */
+    public Connection borrow() throws SQLException {
+        return borrow(false, 0);
+    }
+
+    /**
+     * Borrow a connection for work that must be finished by deadlineNanos
+     * (a System.nanoTime() value). Waiting for the connection, every
+     * statement's query timeout and every network read on it are cut to
+     * the time left, so not even a half-open socket can hold the caller
+     * past the deadline.
+     */
+    public Connection borrow(long deadlineNanos) throws SQLException {
+        return borrow(true, deadlineNanos);
+    }
+
+    private Connection borrow(boolean bounded, long deadlineNanos) throws SQLException {
+        long start = System.nanoTime();
+        long waitDeadline = start + TimeUnit.MILLISECONDS.toNanos(settings.getAcquireTimeoutMillis());
+        if (bounded && deadlineNanos - waitDeadline < 0) {
+            waitDeadline = deadlineNanos;
+        }
+
+        // Either an idle connection, or null: the slot is ours, open a new one
+        PooledConnection candidate = reserve(start, waitDeadline);
+        if (candidate != null && !isUsable(candidate)) {
+            destroy(candidate);
+            candidate = null;
+        }
+        if (candidate == null) {
+            try {
+                Connection physical = DriverManager.getConnection(url, user, password);
+                candidate = new PooledConnection(physical);
+            } catch (SQLException e) {
+                abandonReservation();
+                throw connectFailure(e);
+            }
+            lock.lock();
+            try {
+                totalCreated++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (bounded) {
+            limitNetworkWait(candidate, deadlineNanos);
+        }
+
+        Lease lease = new Lease(candidate, bounded, deadlineNanos);
+        long waited = System.nanoTime() - start;
+        lock.lock();
+        try {
+            pending--;
+            borrowed.put(lease.handle, lease);
+            borrowCount++;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+        } finally {
+            lock.unlock();
+        }
+        return lease.handle;
+    }
+
+    /**
+     * Reserve a slot for the caller, waiting in line if the pool is busy.
+     * Nobody may take a connection while others are already waiting for
+     * one: release() hands it straight to the longest waiter instead.
+     *
+     * @return an idle connection to reuse, or null if the caller should
+     *         open a new one (the slot for it is already counted in pending)
+     */
+    private PooledConnection reserve(long start, long deadline) throws SQLException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new SQLException("Connection pool is closed");
+            }
+            if (waiters.isEmpty()) {
+                PooledConnection next = idle.pollFirst();
+                if (next != null || hasRoom()) {
+                    pending++;
+                    return next;
+                }
+            }
+
+            Waiter waiter = new Waiter();
+            waiters.addLast(waiter);
+            try {
+                while (!waiter.served) {
+                    if (closed) {
+                        waiters.remove(waiter);
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waiters.remove(waiter);
+                        timeoutCount++;
+                        throw new SQLTransientConnectionException("Timed out after "
+                                + TimeUnit.NANOSECONDS.toMillis(deadline - start)
+                                + " ms waiting for a connection (active="
+                                + borrowed.size() + ", max=" + settings.getMaxSize() + ")");
+                    }
+                    waiter.ready.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!waiter.served) {
+                    waiters.remove(waiter);
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                }
+                // Already served: keep the connection, the caller still sees the interrupt flag
+            }
+            return waiter.connection;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give a borrowed connection back to the pool.
+     *
+     * Any open transaction is rolled back and auto-commit is switched back
+     * on, so the next borrower always starts from a clean connection.
+     * Releasing a connection twice, or one this pool did not lend, does
+     * nothing — it may be in use by someone else.
+     */
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        Lease lease;
+        lock.lock();
+        try {
+            lease = borrowed.remove(connection);
+            if (lease == null) {
+                return;
+            }
+            lease.returned = true;
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+
+        PooledConnection pooled = lease.pooled;
+        if (reset(pooled) && !isExpired(pooled, System.nanoTime())) {
+            lock.lock();
+            try {
+                if (!closed) {
+                    pending--;
+                    pooled.lastUsedNanos = System.nanoTime();
+                    idle.addFirst(pooled);
+                    handOff();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        // Keep the slot until the old connection is really gone
+        destroy(pooled);
+        abandonReservation();
+    }
+
+    /**
+     * Was this connection borrowed from this pool (and not yet released)?
+     */
+    public boolean owns(Connection connection) {
+        lock.lock();
+        try {
+            return borrowed.containsKey(connection);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The pool that lent this connection, or null if it is not on loan
+     * from any pool (never borrowed, or already given back).
+     */
+    public static ConnectionPool lenderOf(Connection connection) {
+        if (connection != null && Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ConnectionPool.Lease lease
+                && !lease.returned) {
+            return lease.lender();
+        }
+        return null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Prepare a statement through the borrowed connection's statement cache.
+     *
+     * The first call for a given SQL prepares it (a round trip to MySQL
+     * when server-side prepared statements are on); later calls on the
+     * same physical connection get the very same PreparedStatement back,
+     * with parameters and batch cleared.
+     *
+     * Do NOT close the returned statement — it belongs to the cache and is
+     * closed together with its connection. Close its ResultSets as usual.
+     *
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or NO_GENERATED_KEYS
+     */
+    public PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        Lease lease;
+        lock.lock();
+        try {
+            lease = borrowed.get(connection);
+        } finally {
+            lock.unlock();
+        }
+        if (lease == null || settings.getStatementCacheSize() <= 0) {
+            // Not ours (or caching is off): the statement lives until the connection closes
+            return withTimeout(connection.prepareStatement(sql, autoGeneratedKeys), lease);
+        }
+
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        PreparedStatement statement = lease.pooled.statements.get(key);
+        if (statement != null && !statement.isClosed()) {
+            statement.clearParameters();
+            statement.clearBatch();
+            statementCacheHits.increment();
+            // The last borrower may have had a shorter deadline
+            return withTimeout(statement, lease);
+        }
+        statement = withTimeout(connection.prepareStatement(sql, autoGeneratedKeys), lease);
+        lease.pooled.statements.put(key, statement);
+        statementCacheMisses.increment();
+        return statement;
+    }
+
+    /**
+     * A server we can't reach (refused, timed out, reset) is reported as
+     * an SQLTransientConnectionException with SQLState 08001 — like a pool
+     * timeout, it means nothing was executed, so retrying is always safe.
+     * Other errors (a wrong password, an unknown database) pass through.
+     */
+    private static SQLException connectFailure(SQLException e) {
+        String state = e.getSQLState();
+        boolean unreachable = e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException
+                || (state != null && state.startsWith("08"));
+        if (e instanceof SQLTransientConnectionException || !unreachable) {
+            return e;
+        }
+        return new SQLTransientConnectionException(e.getMessage(), "08001", e.getErrorCode(), e);
+    }
+
+    /** The configured query timeout, or the seconds left before the lease's deadline if that is sooner. */
+    private PreparedStatement withTimeout(PreparedStatement statement, Lease lease) throws SQLException {
+        int seconds = settings.getQueryTimeoutSeconds();
+        if (lease != null && lease.bounded) {
+            long leftNanos = lease.deadlineNanos - System.nanoTime();
+            // Whole seconds only, and 0 would mean "no limit": at least 1
+            int left = (int) Math.max(1, Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toSeconds(leftNanos)));
+            seconds = seconds > 0 ? Math.min(seconds, left) : left;
+        }
+        if (seconds > 0) {
+            statement.setQueryTimeout(seconds);
+        }
+        return statement;
+    }
+
+    /**
+     * Make every network read on this connection give up at the deadline
+     * — the query timeout alone can't, because cancelling a query needs a
+     * second connection to a server that may no longer answer. reset()
+     * restores the connection's own timeout (the URL's socketTimeout).
+     */
+    private void limitNetworkWait(PooledConnection pooled, long deadlineNanos) {
+        if (!pooled.networkTimeoutSupported) {
+            return;
+        }
+        long leftMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        try {
+            if (pooled.defaultNetworkTimeout < 0) {
+                pooled.defaultNetworkTimeout = pooled.connection.getNetworkTimeout();
+            }
+            pooled.connection.setNetworkTimeout(Runnable::run, (int) Math.min(Integer.MAX_VALUE, leftMillis));
+        } catch (SQLFeatureNotSupportedException e) {
+            pooled.networkTimeoutSupported = false;
+        } catch (SQLException e) {
+            // The query timeout still applies
+            Metrics.error("db.networkTimeout");
+        }
+    }
+
+    /**
+     * A snapshot of the pool's counters — handy for a "stats" screen.
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(borrowed.size(), idle.size(), pending, waiters.size(), settings.getMaxSize(),
+                    totalCreated, totalDestroyed, borrowCount, timeoutCount, totalWaitNanos, maxWaitNanos,
+                    statementCacheHits.sum(), statementCacheMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close every idle connection and stop handing out new ones.
+     * Connections still borrowed are closed when they are released.
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            for (Waiter waiter : waiters) {
+                waiter.ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::destroy);
+    }
+
+    private void evictStale() {
+        List<PooledConnection> stale = new ArrayList<>();
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getIdleTimeoutMillis());
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastUsedNanos > idleTimeoutNanos || isExpired(pooled, now)) {
+                    it.remove();
+                    stale.add(pooled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        stale.forEach(this::destroy);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.nanoTime();
+        if (isExpired(pooled, now)) {
+            return false;
+        }
+        if (now - pooled.lastUsedNanos < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(settings.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return now - pooled.createdNanos > TimeUnit.MILLISECONDS.toNanos(settings.getMaxLifetimeMillis());
+    }
+
+    private boolean reset(PooledConnection pooled) {
+        try {
+            Connection connection = pooled.connection;
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (pooled.defaultNetworkTimeout >= 0) {
+                connection.setNetworkTimeout(Runnable::run, pooled.defaultNetworkTimeout);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void abandonReservation() {
+        lock.lock();
+        try {
+            pending--;
+            handOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Serve waiters, oldest first, with idle connections or free slots.
+     * Call with the lock held, whenever either of them may have appeared.
+     */
+    private void handOff() {
+        while (!closed && !waiters.isEmpty()) {
+            PooledConnection next = idle.pollFirst();
+            if (next == null && !hasRoom()) {
+                return;
+            }
+            Waiter waiter = waiters.pollFirst();
+            pending++;
+            waiter.connection = next;
+            waiter.served = true;
+            waiter.ready.signal();
+        }
+    }
+
+    /** Room to open one more connection? Only asked when no idle one is left. */
+    private boolean hasRoom() {
+        return borrowed.size() + pending < settings.getMaxSize();
+    }
+
+    private void destroy(PooledConnection pooled) {
+        closeQuietly(pooled.connection);
+        lock.lock();
+        try {
+            totalDestroyed++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Nothing to recover: the connection is gone either way
+            Metrics.error("db.close");
+        }
+    }
+
+    /** A borrower waiting in line; handOff() fills it in and wakes it. */
+    private final class Waiter {
+        private final Condition ready = lock.newCondition();
+        private boolean served;
+        /** The idle connection handed over, or null: a free slot, open a new one. */
+        private PooledConnection connection;
+    }
+
+    /**
+     * One loan of a pooled connection. The borrower only ever sees
+     * {@code handle}, a proxy that forwards to the real connection until
+     * the loan ends. After that every call fails, except close() (does
+     * nothing) and isClosed() (true) — so a second release, or a stale
+     * reference kept by mistake, can never touch the next borrower's work.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection handle;
+        /** Does this loan have a deadline (see borrow(long))? */
+        private final boolean bounded;
+        private final long deadlineNanos;
+        /** Set under the pool lock when the loan ends. */
+        private volatile boolean returned;
+
+        private Lease(PooledConnection pooled, boolean bounded, long deadlineNanos) {
+            this.pooled = pooled;
+            this.bounded = bounded;
+            this.deadlineNanos = deadlineNanos;
+            this.handle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, this);
+        }
+
+        private ConnectionPool lender() {
+            return ConnectionPool.this;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release(handle);
+                    return null;
+                case "isClosed":
+                    if (returned) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "pooled " + pooled.connection;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection was already returned to the pool", "08003");
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection connection;
+        private final long createdNanos;
+        private long lastUsedNanos;
+        /** The driver's network timeout before a deadline changed it; -1 = never changed. */
+        private int defaultNetworkTimeout = -1;
+        private boolean networkTimeoutSupported = true;
+
+        /**
+         * SQL → prepared statement, least recently used first. Only the
+         * thread that borrowed the connection touches it, so no locking.
+         */
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= settings.getStatementCacheSize()) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            this.createdNanos = System.nanoTime();
+            this.lastUsedNanos = createdNanos;
+        }
+    }
+
+    /**
+     * Pool sizing and timeouts. Defaults can be overridden through
+     * {@link AppConfig} keys under the given prefix, e.g.
+     * "learninglogs.pool.maxSize".
+     */
+    public static final class Settings {
+        private final int maxSize;
+        private final long acquireTimeoutMillis;
+        private final long idleTimeoutMillis;
+        private final long maxLifetimeMillis;
+        private final int validationTimeoutSeconds;
+        private final long housekeepingMillis;
+        private final int statementCacheSize;
+        private final int queryTimeoutSeconds;
+
+        public Settings(int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis,
+                        long maxLifetimeMillis, int validationTimeoutSeconds, long housekeepingMillis) {
+            this(maxSize, acquireTimeoutMillis, idleTimeoutMillis, maxLifetimeMillis,
+                    validationTimeoutSeconds, housekeepingMillis, 64);
+        }
+
+        public Settings(int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis,
+                        long maxLifetimeMillis, int validationTimeoutSeconds, long housekeepingMillis,
+                        int statementCacheSize) {
+            this(maxSize, acquireTimeoutMillis, idleTimeoutMillis, maxLifetimeMillis,
+                    validationTimeoutSeconds, housekeepingMillis, statementCacheSize, 30);
+        }
+
+        /**
+         * @param queryTimeoutSeconds how long a statement may run before the
+         *                            driver cancels it (0 = no limit)
+         */
+        public Settings(int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis,
+                        long maxLifetimeMillis, int validationTimeoutSeconds, long housekeepingMillis,
+                        int statementCacheSize, int queryTimeoutSeconds) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be at least 1");
+            }
+            this.maxSize = maxSize;
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            this.maxLifetimeMillis = maxLifetimeMillis;
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            this.housekeepingMillis = housekeepingMillis;
+            this.statementCacheSize = statementCacheSize;
+            this.queryTimeoutSeconds = Math.max(0, queryTimeoutSeconds);
+        }
+
+        public static Settings fromConfig(String prefix) {
+            return new Settings(
+                    AppConfig.getInt(prefix + ".maxSize", 10),
+                    AppConfig.getLong(prefix + ".acquireTimeoutMs", 30_000),
+                    AppConfig.getLong(prefix + ".idleTimeoutMs", 600_000),
+                    AppConfig.getLong(prefix + ".maxLifetimeMs", 1_800_000),
+                    AppConfig.getInt(prefix + ".validationTimeoutSec", 2),
+                    AppConfig.getLong(prefix + ".housekeepingMs", 30_000),
+                    AppConfig.getInt(prefix + ".statementCacheSize", 64),
+                    AppConfig.getInt(prefix + ".queryTimeoutSec", 30));
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getAcquireTimeoutMillis() {
+            return acquireTimeoutMillis;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public long getMaxLifetimeMillis() {
+            return maxLifetimeMillis;
+        }
+
+        public int getValidationTimeoutSeconds() {
+            return validationTimeoutSeconds;
+        }
+
+        public long getHousekeepingMillis() {
+            return housekeepingMillis;
+        }
+
+        public int getStatementCacheSize() {
+            return statementCacheSize;
+        }
+
+        public int getQueryTimeoutSeconds() {
+            return queryTimeoutSeconds;
+        }
+    }
+
+    /**
+     * Point-in-time pool counters.
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int pending;
+        private final int waiting;
+        private final int maxSize;
+        private final long totalCreated;
+        private final long totalDestroyed;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+
+        private Stats(int active, int idle, int pending, int waiting, int maxSize, long totalCreated,
+                      long totalDestroyed, long borrowCount, long timeoutCount,
+                      long totalWaitNanos, long maxWaitNanos,
+                      long statementCacheHits, long statementCacheMisses) {
+            this.active = active;
+            this.idle = idle;
+            this.pending = pending;
+            this.waiting = waiting;
+            this.maxSize = maxSize;
+            this.totalCreated = totalCreated;
+            this.totalDestroyed = totalDestroyed;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getTotalCreated() {
+            return totalCreated;
+        }
+
+        public long getTotalDestroyed() {
+            return totalDestroyed;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d pending=%d waiting=%d max=%d created=%d destroyed=%d "
+                            + "borrows=%d timeouts=%d avgWait=%.3fms maxWait=%.3fms stmtCacheHits=%d stmtCacheMisses=%d",
+                    active, idle, pending, waiting, maxSize, totalCreated, totalDestroyed,
+                    borrowCount, timeoutCount, getAverageWaitMillis(), getMaxWaitMillis(),
+                    statementCacheHits, statementCacheMisses);
+        }
+    }
+}
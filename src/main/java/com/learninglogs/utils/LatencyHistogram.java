@@ -0,0 +1,114 @@
+package com.learninglogs.utils;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long something took, in power-of-two buckets.
+ *
+ *   bucket 0  → up to 1 µs
+ *   bucket 1  → up to 2 µs
+ *   bucket 2  → up to 4 µs
+ *   ...
+ *   bucket 26 → up to ~67 s
+ *   bucket 27 → anything slower
+ *
+ * Recording is a handful of LongAdder increments — no locks, no
+ * allocation — so it is cheap enough to leave on all the time.
+ * Percentiles are estimates: they report the upper edge of the bucket
+ * the percentile falls into (at most 2x too high).
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 28;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucketOf(value)].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getAverageMillis() {
+        long n = getCount();
+        return n == 0 ? 0 : getTotalNanos() / (double) n / 1_000_000.0;
+    }
+
+    /**
+     * Estimated latency (ms) below which the given fraction of calls
+     * finished, e.g. percentileMillis(0.99) for p99.
+     */
+    public double percentileMillis(double fraction) {
+        long[] counts = bucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // The last bucket has no upper edge; the max is the best we know
+                long upperNanos = i == BUCKETS - 1 ? getMaxNanos() : upperBoundNanos(i);
+                return Math.min(upperNanos, getMaxNanos()) / 1_000_000.0;
+            }
+        }
+        return getMaxNanos() / 1_000_000.0;
+    }
+
+    /** Calls per bucket (a snapshot; see the class comment for bucket edges). */
+    public long[] bucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /** Upper edge of a bucket in nanoseconds; Long.MAX_VALUE for the last one. */
+    public static long upperBoundNanos(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) * 1_000L;
+    }
+
+    public static int bucketCount() {
+        return BUCKETS;
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = (nanos + 999) / 1_000;
+        if (micros <= 1) {
+            return 0;
+        }
+        // Smallest b with 2^b >= micros
+        int bucket = 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+}
@@ -0,0 +1,329 @@
+package com.learninglogs.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * One place to record where the time goes.
+ *
+ * Every "operation" has a name like "topicDao.fetchAllTopics" or
+ * "db.acquire", and gets:
+ *   - a latency histogram        → Metrics.record(op, nanos)
+ *   - a rows counter             → Metrics.rows(op, n)
+ *   - an errors counter          → Metrics.error(op)
+ * Anything slower than "learninglogs.metrics.slowQueryMs" (default 200)
+ * is also kept in a small "slow query" log with a short description.
+ *
+ * Gauges are values read on demand (e.g. pool.active): register a
+ * supplier once with Metrics.gauge(name, supplier).
+ *
+ * Everything can be printed (see StatsMenu) or written to a file as JSON
+ * or Prometheus text. Set "learninglogs.metrics.enabled=false" to turn
+ * recording off entirely.
+ */
+public final class Metrics {
+
+    private static final boolean ENABLED = AppConfig.getBoolean("learninglogs.metrics.enabled", true);
+    private static final long SLOW_NANOS = AppConfig.getLong("learninglogs.metrics.slowQueryMs", 200) * 1_000_000L;
+    private static final int SLOW_LOG_SIZE = AppConfig.getInt("learninglogs.metrics.slowLogSize", 50);
+
+    private static final Map<String, LatencyHistogram> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> ROWS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> ERRORS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+    /** Newest first; guarded by itself. */
+    private static final Deque<SlowQuery> SLOW_LOG = new ArrayDeque<>();
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Record one call of an operation that took the given time.
+     */
+    public static void record(String op, long nanos) {
+        if (ENABLED) {
+            TIMERS.computeIfAbsent(op, k -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    /**
+     * Record one call, and log it as slow if it went over the threshold.
+     * The detail (e.g. the search text) is only built into a message
+     * when the call actually was slow.
+     */
+    public static void record(String op, long nanos, Object detail) {
+        record(op, nanos);
+        if (ENABLED && nanos >= SLOW_NANOS) {
+            slow(op, nanos, detail);
+        }
+    }
+
+    public static void rows(String op, long count) {
+        if (ENABLED && count > 0) {
+            ROWS.computeIfAbsent(op, k -> new LongAdder()).add(count);
+        }
+    }
+
+    public static void error(String op) {
+        if (ENABLED) {
+            ERRORS.computeIfAbsent(op, k -> new LongAdder()).increment();
+        }
+    }
+
+    public static void gauge(String name, LongSupplier supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    /**
+     * Forget everything recorded so far (gauges stay registered).
+     */
+    public static void reset() {
+        TIMERS.clear();
+        ROWS.clear();
+        ERRORS.clear();
+        synchronized (SLOW_LOG) {
+            SLOW_LOG.clear();
+        }
+    }
+
+    public static Map<String, LatencyHistogram> getTimers() {
+        return new TreeMap<>(TIMERS);
+    }
+
+    public static long getRows(String op) {
+        LongAdder adder = ROWS.get(op);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public static long getErrors(String op) {
+        LongAdder adder = ERRORS.get(op);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /** Every op that has a timer, a row count or an error count. */
+    public static List<String> getOperations() {
+        TreeMap<String, Boolean> ops = new TreeMap<>();
+        TIMERS.keySet().forEach(op -> ops.put(op, true));
+        ROWS.keySet().forEach(op -> ops.put(op, true));
+        ERRORS.keySet().forEach(op -> ops.put(op, true));
+        return new ArrayList<>(ops.keySet());
+    }
+
+    public static Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        GAUGES.forEach((name, supplier) -> {
+            try {
+                values.put(name, supplier.getAsLong());
+            } catch (RuntimeException e) {
+                // A gauge whose source is gone (e.g. pool shut down) is just skipped
+            }
+        });
+        return values;
+    }
+
+    /** Recent slow calls, newest first. */
+    public static List<SlowQuery> getSlowQueries() {
+        synchronized (SLOW_LOG) {
+            return new ArrayList<>(SLOW_LOG);
+        }
+    }
+
+    public static long getSlowQueryThresholdMillis() {
+        return SLOW_NANOS / 1_000_000L;
+    }
+
+    // ============================================================
+    // Export
+    // ============================================================
+
+    public static String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n  \"operations\": {");
+        Map<String, LatencyHistogram> timers = getTimers();
+        List<String> ops = getOperations();
+        for (int i = 0; i < ops.size(); i++) {
+            String op = ops.get(i);
+            LatencyHistogram h = timers.get(op);
+            json.append(i == 0 ? "\n" : ",\n").append("    ").append(quote(op)).append(": {");
+            json.append("\"count\": ").append(h == null ? 0 : h.getCount());
+            if (h != null) {
+                json.append(", \"avgMs\": ").append(number(h.getAverageMillis()))
+                        .append(", \"p50Ms\": ").append(number(h.percentileMillis(0.50)))
+                        .append(", \"p95Ms\": ").append(number(h.percentileMillis(0.95)))
+                        .append(", \"p99Ms\": ").append(number(h.percentileMillis(0.99)))
+                        .append(", \"maxMs\": ").append(number(h.getMaxNanos() / 1_000_000.0));
+            }
+            json.append(", \"rows\": ").append(getRows(op))
+                    .append(", \"errors\": ").append(getErrors(op)).append('}');
+        }
+        json.append("\n  },\n  \"gauges\": {");
+        boolean first = true;
+        for (Map.Entry<String, Long> gauge : getGauges().entrySet()) {
+            json.append(first ? "\n" : ",\n").append("    ").append(quote(gauge.getKey()))
+                    .append(": ").append(gauge.getValue());
+            first = false;
+        }
+        json.append("\n  },\n  \"slowQueryThresholdMs\": ").append(getSlowQueryThresholdMillis());
+        json.append(",\n  \"slowQueries\": [");
+        first = true;
+        for (SlowQuery slow : getSlowQueries()) {
+            json.append(first ? "\n" : ",\n").append("    {\"at\": ").append(quote(slow.getAt().toString()))
+                    .append(", \"op\": ").append(quote(slow.getOp()))
+                    .append(", \"ms\": ").append(number(slow.getMillis()))
+                    .append(", \"detail\": ").append(quote(slow.getDetail())).append('}');
+            first = false;
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    /**
+     * Prometheus text exposition format (what a /metrics endpoint serves).
+     */
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        Map<String, LatencyHistogram> timers = getTimers();
+
+        out.append("# HELP learninglogs_op_duration_seconds Time spent per operation.\n");
+        out.append("# TYPE learninglogs_op_duration_seconds histogram\n");
+        for (Map.Entry<String, LatencyHistogram> timer : timers.entrySet()) {
+            String label = "op=" + quote(timer.getKey());
+            long[] counts = timer.getValue().bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                long upper = LatencyHistogram.upperBoundNanos(i);
+                String le = upper == Long.MAX_VALUE ? "+Inf" : number(upper / 1e9);
+                out.append("learninglogs_op_duration_seconds_bucket{").append(label)
+                        .append(",le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+            }
+            out.append("learninglogs_op_duration_seconds_sum{").append(label).append("} ")
+                    .append(number(timer.getValue().getTotalNanos() / 1e9)).append('\n');
+            out.append("learninglogs_op_duration_seconds_count{").append(label).append("} ")
+                    .append(cumulative).append('\n');
+        }
+
+        out.append("# HELP learninglogs_rows_total Rows read or written per operation.\n");
+        out.append("# TYPE learninglogs_rows_total counter\n");
+        for (String op : getOperations()) {
+            out.append("learninglogs_rows_total{op=").append(quote(op)).append("} ").append(getRows(op)).append('\n');
+        }
+        out.append("# HELP learninglogs_errors_total Failed calls per operation.\n");
+        out.append("# TYPE learninglogs_errors_total counter\n");
+        for (String op : getOperations()) {
+            out.append("learninglogs_errors_total{op=").append(quote(op)).append("} ").append(getErrors(op)).append('\n');
+        }
+
+        for (Map.Entry<String, Long> gauge : getGauges().entrySet()) {
+            String name = "learninglogs_" + gauge.getKey().replaceAll("[^A-Za-z0-9_]", "_");
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(gauge.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Write toJson() or toPrometheus() (chosen by the file extension:
+     * ".json" → JSON, anything else → Prometheus text).
+     */
+    public static Path writeTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        String text = file.getFileName().toString().endsWith(".json") ? toJson() : toPrometheus();
+        Files.writeString(file, text);
+        return file;
+    }
+
+    private static void slow(String op, long nanos, Object detail) {
+        SlowQuery entry = new SlowQuery(new Timestamp(System.currentTimeMillis()), op,
+                nanos / 1_000_000.0, detail == null ? "" : String.valueOf(detail));
+        synchronized (SLOW_LOG) {
+            SLOW_LOG.addFirst(entry);
+            while (SLOW_LOG.size() > SLOW_LOG_SIZE) {
+                SLOW_LOG.removeLast();
+            }
+        }
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.6f", value).replaceAll("0+$", "").replaceAll("\\.$", "");
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * One call that took longer than the slow-query threshold.
+     */
+    public static final class SlowQuery {
+        private final Timestamp at;
+        private final String op;
+        private final double millis;
+        private final String detail;
+
+        private SlowQuery(Timestamp at, String op, double millis, String detail) {
+            this.at = at;
+            this.op = op;
+            this.millis = millis;
+            this.detail = detail;
+        }
+
+        public Timestamp getAt() {
+            return at;
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %.1f ms %s", at, op, millis, detail);
+        }
+    }
+}
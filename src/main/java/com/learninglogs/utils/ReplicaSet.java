@@ -0,0 +1,129 @@
+package com.learninglogs.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas: one ConnectionPool per replica URL, plus the logic
+ * for choosing which one serves the next read.
+ *
+ *   - Load balancing: replicas take turns (round robin), skipping any
+ *     that are marked down.
+ *   - Health: a replica is marked down as soon as borrowing from it
+ *     fails, and a background check pings every replica each
+ *     healthCheckMillis. A down replica is tried again once its ping
+ *     succeeds.
+ *   - If no replica is healthy, borrow() returns null and the caller
+ *     reads from the primary instead.
+ */
+final class ReplicaSet {
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private final int validationTimeoutSeconds;
+
+    ReplicaSet(List<String> urls, String user, String password, ConnectionPool.Settings settings,
+               long healthCheckMillis) {
+        for (String url : urls) {
+            replicas.add(new Replica(new ConnectionPool(url, user, password, settings)));
+        }
+        this.validationTimeoutSeconds = settings.getValidationTimeoutSeconds();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckMillis, healthCheckMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the next healthy replica.
+     *
+     * @return a replica connection, or null if every replica is down
+     */
+    Connection borrow() {
+        int count = replicas.size();
+        int first = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((first + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return DatabaseConnection.borrow(replica.pool);
+            } catch (SQLException e) {
+                replica.healthy = false;
+                Metrics.error("db.replica");
+                System.out.println("Replica " + replica.pool.getUrl() + " is down: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /** The replica pool this connection was borrowed from, or null. */
+    ConnectionPool ownerOf(Connection connection) {
+        for (Replica replica : replicas) {
+            if (replica.pool.owns(connection)) {
+                return replica.pool;
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return replicas.size();
+    }
+
+    int healthyCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private void checkHealth() {
+        for (Replica replica : replicas) {
+            Connection connection = null;
+            boolean ok;
+            try {
+                connection = replica.pool.borrow();
+                ok = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                ok = false;
+            } finally {
+                replica.pool.release(connection);
+            }
+            if (ok && !replica.healthy) {
+                System.out.println("Replica " + replica.pool.getUrl() + " is back");
+            }
+            replica.healthy = ok;
+        }
+    }
+
+    private static final class Replica {
+        private final ConnectionPool pool;
+        private volatile boolean healthy = true;
+
+        private Replica(ConnectionPool pool) {
+            this.pool = pool;
+        }
+    }
+}
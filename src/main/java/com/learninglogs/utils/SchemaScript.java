@@ -0,0 +1,77 @@
+package com.learninglogs.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs a .sql file (like sql/learninglog.sql) over a JDBC connection.
+ *
+ * The schema file is written for phpMyAdmin, so it starts with
+ * "CREATE DATABASE ..." and "USE ...". Those two lines are always
+ * skipped: the database is already selected by the JDBC URL.
+ *
+ * FULLTEXT indexes and the SQL triggers only work on MySQL, so on any
+ * other database (for example the in-process one used by the
+ * benchmarks) statements that create them are skipped too.
+ */
+public final class SchemaScript {
+
+    /** The schema every backend is built from. */
+    public static final Path SCHEMA_FILE = Path.of("sql", "learninglog.sql");
+
+    private SchemaScript() {
+    }
+
+    /**
+     * Execute every statement in the file, in order.
+     */
+    public static void apply(Connection conn, Path script) throws SQLException {
+        List<String> statements;
+        try {
+            statements = split(Files.readString(script));
+        } catch (IOException e) {
+            throw new SQLException("Cannot read " + script.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+
+        boolean mysql = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        try (Statement statement = conn.createStatement()) {
+            for (String sql : statements) {
+                String upper = sql.toUpperCase(Locale.ROOT);
+                if (upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")
+                        || (!mysql && (upper.contains("FULLTEXT") || upper.startsWith("CREATE TRIGGER")))) {
+                    continue;
+                }
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Split a script into statements: drop "--" comments, cut on ";".
+     */
+    static List<String> split(String script) {
+        StringBuilder cleaned = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (!trimmed.startsWith("--")) {
+                cleaned.append(line).append('\n');
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String part : cleaned.toString().split(";")) {
+            String sql = part.trim();
+            if (!sql.isEmpty()) {
+                statements.add(sql);
+            }
+        }
+        return statements;
+    }
+}
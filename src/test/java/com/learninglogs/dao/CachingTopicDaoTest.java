@@ -0,0 +1,96 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The snapshot must stay exactly the table: callers can't change it
+ * through the objects they get back, and a table over the bound is not
+ * cached at all.
+ */
+class CachingTopicDaoTest {
+
+    @Test
+    void changingAReturnedTopicDoesNotChangeTheCache() {
+        CachingTopicDao cache = new CachingTopicDao(new ListDao(topic(1, "Java"), topic(2, "Go")), 60_000, 10);
+
+        cache.fetchAllTopics().get(0).setName("Changed");
+        cache.getTopic(2).setId(99);
+        Topic inserted = new Topic(3, "Rust", 0L, 0L);
+        cache.insertTopic(inserted);
+        inserted.setName("Changed too");
+
+        assertEquals(List.of("Java", "Go", "Rust"),
+                cache.fetchAllTopics().stream().map(Topic::getName).toList());
+        assertEquals(2, cache.findTopicsByName("go").get(0).getId());
+    }
+
+    @Test
+    void tableOverTheRowBoundIsReadThrough() {
+        ListDao backend = new ListDao(topic(1, "a"), topic(2, "b"));
+        CachingTopicDao cache = new CachingTopicDao(backend, 60_000, 2);
+        cache.fetchAllTopics();
+        assertEquals(2, cache.getStats().getSize());
+
+        cache.insertTopic(topic(3, "c"));
+
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getInvalidations());
+        assertEquals(3, cache.fetchAllTopics().size());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    private static Topic topic(int id, String name) {
+        return new Topic(id, name, 0L, 0L);
+    }
+
+    /** A backend holding a plain list, in id order. */
+    private static final class ListDao implements TopicDao {
+
+        private final List<Topic> topics = new ArrayList<>();
+
+        private ListDao(Topic... topics) {
+            this.topics.addAll(List.of(topics));
+        }
+
+        @Override
+        public boolean insertTopic(Topic topic) {
+            topics.add(topic);
+            return true;
+        }
+
+        @Override
+        public BatchResult insertTopics(Collection<Topic> batch) {
+            topics.addAll(batch);
+            BatchResult result = new BatchResult(batch.size());
+            result.recordInserted(batch.size());
+            return result;
+        }
+
+        @Override
+        public ArrayList<Topic> fetchAllTopics() {
+            ArrayList<Topic> copies = new ArrayList<>();
+            for (Topic topic : topics) {
+                copies.add(new Topic(topic.getId(), topic.getName(), 0L, 0L));
+            }
+            return copies;
+        }
+
+        @Override
+        public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+            ArrayList<Topic> page = new ArrayList<>();
+            for (Topic topic : fetchAllTopics()) {
+                if (topic.getId() > lastId && page.size() < limit) {
+                    page.add(topic);
+                }
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Entry;
+import com.learninglogs.entity.Topic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The embedded log must accept exactly what the MySQL schema accepts,
+ * and read back what it wrote.
+ */
+class EmbeddedTopicDaoTest {
+
+    private static final String EMOJI = "🚀";
+
+    @TempDir
+    Path dir;
+
+    private EmbeddedTopicDao dao;
+
+    @AfterEach
+    void close() {
+        if (dao != null) {
+            dao.close();
+        }
+    }
+
+    @Test
+    void namesCountCharactersNotUtf16Units() {
+        dao = new EmbeddedTopicDao(dir.resolve("topics.log"), false);
+        assertTrue(dao.insertTopic(new Topic(EMOJI.repeat(100))));
+        assertFalse(dao.insertTopic(new Topic(EMOJI.repeat(101))));
+    }
+
+    @Test
+    void textUpToTheByteLimitIsStoredAndReadBack() {
+        Path log = dir.resolve("topics.log");
+        // 16,383 emoji are 65,532 bytes of UTF-8; in modified UTF-8 they would not fit
+        String text = EMOJI.repeat(16_383);
+        String name = "Rockets " + EMOJI;
+        dao = new EmbeddedTopicDao(log, false);
+        Topic topic = new Topic(name);
+        assertTrue(dao.insertTopic(topic));
+        assertTrue(dao.entries().insertEntry(new Entry(topic.getId(), text)));
+        assertFalse(dao.entries().insertEntry(new Entry(topic.getId(), text + "abcd")));
+        dao.close();
+
+        dao = new EmbeddedTopicDao(log, false);
+        assertEquals(name, dao.fetchAllTopics().get(0).getName());
+        assertEquals(text, dao.entries().fetchEntriesByTopic(topic.getId()).get(0).getText());
+    }
+}
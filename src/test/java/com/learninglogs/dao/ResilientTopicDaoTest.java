@@ -0,0 +1,156 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import com.learninglogs.utils.CircuitBreaker;
+import com.learninglogs.utils.DatabaseConnection;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Which failures are retried, and which open the breaker. Getting a
+ * write wrong here would insert a topic twice.
+ */
+class ResilientTopicDaoTest {
+
+    private static final SQLException CANNOT_CONNECT =
+            new SQLTransientConnectionException("Communications link failure", "08001");
+    private static final SQLException CONNECTION_LOST =
+            new SQLNonTransientConnectionException("Connection reset", "08S01");
+    private static final SQLException TIMEOUT =
+            new SQLTimeoutException("Statement cancelled due to timeout", "HYT00");
+    private static final SQLException DEADLOCK =
+            new SQLException("Deadlock found when trying to get lock", "40001", 1213);
+    private static final SQLException LOCK_WAIT =
+            new SQLException("Lock wait timeout exceeded", "HY000", 1205);
+    private static final SQLException DUPLICATE =
+            new SQLIntegrityConstraintViolationException("Duplicate entry 'Java'", "23000", 1062);
+
+    @Test
+    void readsRetryConnectionProblemsButNotTimeouts() {
+        assertTrue(ResilientTopicDao.isRetryable(CANNOT_CONNECT, false));
+        assertTrue(ResilientTopicDao.isRetryable(CONNECTION_LOST, false));
+        assertFalse(ResilientTopicDao.isRetryable(TIMEOUT, false));
+    }
+
+    @Test
+    void writesOnlyRetryWhenNothingCanHaveBeenSaved() {
+        assertTrue(ResilientTopicDao.isRetryable(CANNOT_CONNECT, true));
+        // Lost halfway: the INSERT may have committed
+        assertFalse(ResilientTopicDao.isRetryable(CONNECTION_LOST, true));
+        assertFalse(ResilientTopicDao.isRetryable(TIMEOUT, true));
+    }
+
+    @Test
+    void rolledBackTransactionsAreAlwaysRetried() {
+        assertTrue(ResilientTopicDao.isRetryable(DEADLOCK, true));
+        assertTrue(ResilientTopicDao.isRetryable(LOCK_WAIT, true));
+        assertTrue(ResilientTopicDao.isRetryable(new SQLTransactionRollbackException("rolled back"), true));
+        assertTrue(ResilientTopicDao.isRetryable(DEADLOCK, false));
+    }
+
+    @Test
+    void dataErrorsAreNeverRetried() {
+        assertFalse(ResilientTopicDao.isRetryable(DUPLICATE, false));
+        assertFalse(ResilientTopicDao.isRetryable(DUPLICATE, true));
+    }
+
+    @Test
+    void onlyUnreachableOrSlowDatabasesCountAsOutages() {
+        assertTrue(ResilientTopicDao.isOutage(CANNOT_CONNECT));
+        assertTrue(ResilientTopicDao.isOutage(CONNECTION_LOST));
+        assertTrue(ResilientTopicDao.isOutage(TIMEOUT));
+        assertTrue(ResilientTopicDao.isOutage(new SQLException("Socket closed", "08006")));
+        assertFalse(ResilientTopicDao.isOutage(DEADLOCK));
+        assertFalse(ResilientTopicDao.isOutage(DUPLICATE));
+        assertFalse(ResilientTopicDao.isOutage(null));
+    }
+
+    @Test
+    void aSlowCallEndsWithinTheBudget() {
+        // Every call would hang for 10 s, and the 30 s query timeout alone wouldn't stop it
+        FaultInjectingTopicDao slow = new FaultInjectingTopicDao(new EmptyDao(), 0, 1, 10_000, 30_000, -1, 0);
+        ResilientTopicDao dao = new ResilientTopicDao(slow, new CircuitBreaker("test", 100, 1_000),
+                3, 0, 0, 300, 100);
+
+        long start = System.nanoTime();
+        assertEquals(0, dao.countTopics());
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(tookMillis < 1_000, "took " + tookMillis + " ms");
+        assertTrue(isTimeoutReported());
+        assertEquals(-1, DatabaseConnection.remainingMillis());
+    }
+
+    @Test
+    void noRetryStartsOnceTheBudgetIsSpent() {
+        CountingDao failing = new CountingDao();
+        ResilientTopicDao dao = new ResilientTopicDao(failing, new CircuitBreaker("test", 100, 1_000),
+                100, 0, 0, 200, 100);
+
+        dao.fetchAllTopics();
+
+        // Each attempt takes 50 ms: a 200 ms budget fits about four, never a hundred
+        assertTrue(failing.calls >= 2 && failing.calls <= 5, failing.calls + " attempts");
+        DatabaseConnection.takeFailure();
+    }
+
+    private static boolean isTimeoutReported() {
+        return ResilientTopicDao.isTimeout(DatabaseConnection.takeFailure());
+    }
+
+    /** A backend with no topics, that never fails by itself. */
+    private static class EmptyDao implements TopicDao {
+
+        @Override
+        public boolean insertTopic(Topic topic) {
+            return true;
+        }
+
+        @Override
+        public BatchResult insertTopics(Collection<Topic> topics) {
+            BatchResult result = new BatchResult(topics.size());
+            result.recordInserted(topics.size());
+            return result;
+        }
+
+        @Override
+        public ArrayList<Topic> fetchAllTopics() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+            return new ArrayList<>();
+        }
+    }
+
+    /** Loses its connection after 50 ms on every read. */
+    private static final class CountingDao extends EmptyDao {
+        private int calls;
+
+        @Override
+        public ArrayList<Topic> fetchAllTopics() {
+            calls++;
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            DatabaseConnection.reportFailure(CONNECTION_LOST);
+            return new ArrayList<>();
+        }
+    }
+}
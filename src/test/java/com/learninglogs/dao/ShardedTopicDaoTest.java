@@ -0,0 +1,183 @@
+package com.learninglogs.dao;
+
+import com.learninglogs.entity.Topic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The scatter-gather reads must answer exactly like one database would,
+ * whatever order each shard hands its rows back in.
+ */
+class ShardedTopicDaoTest {
+
+    @TempDir
+    Path dir;
+
+    private ShardedTopicDao sharded;
+
+    @AfterEach
+    void close() {
+        if (sharded != null) {
+            sharded.close();
+        }
+    }
+
+    @Test
+    void fetchAllTopicsMergesShardsById() {
+        sharded = shardedOver(
+                new ListShard(topic(5, "e"), topic(1, "a"), topic(9, "i")),
+                new ListShard(topic(4, "d"), topic(2, "b")),
+                new ListShard());
+
+        assertEquals(List.of(1, 2, 4, 5, 9), ids(sharded.fetchAllTopics()));
+    }
+
+    @Test
+    void fetchTopicsAfterIsOnePageAcrossShards() {
+        sharded = shardedOver(
+                new ListShard(topic(1, "a"), topic(5, "e"), topic(9, "i")),
+                new ListShard(topic(2, "b"), topic(4, "d"), topic(6, "f")));
+
+        assertEquals(List.of(4, 5), ids(sharded.fetchTopicsAfter(2, 2)));
+        assertEquals(List.of(9), ids(sharded.fetchTopicsAfter(6, 10)));
+        assertEquals(List.of(), ids(sharded.fetchTopicsAfter(9, 10)));
+    }
+
+    @Test
+    void recentlyUpdatedIsNewestFirstAcrossShards() {
+        sharded = shardedOver(
+                new ListShard(new Topic(1, "a", 0L, 300L), new Topic(3, "c", 0L, 100L)),
+                new ListShard(new Topic(2, "b", 0L, 200L), new Topic(4, "d", 0L, 300L)));
+
+        assertEquals(List.of(4, 1, 2), ids(sharded.fetchRecentlyUpdatedTopics(3)));
+    }
+
+    @Test
+    void searchMergesByRelevanceLikeOneDatabase() {
+        sharded = shardedOver(
+                new ListShard(topic(1, "Learning Java"), topic(4, "Java")),
+                new ListShard(topic(2, "JavaScript"), topic(3, "java"), topic(5, "Python")));
+
+        // Exact (lower id first) > prefix > word start
+        assertEquals(List.of(3, 4, 2, 1), ids(sharded.searchTopics("java", 10)));
+        assertEquals(List.of(3, 4), ids(sharded.searchTopics("java", 2)));
+    }
+
+    @Test
+    void streamTopicsMergesByIdAndCountsAdd() {
+        sharded = shardedOver(
+                new ListShard(topic(3, "c"), topic(7, "g")),
+                new ListShard(topic(1, "a"), topic(8, "h")),
+                new ListShard(topic(2, "b")));
+
+        try (Stream<Topic> topics = sharded.streamTopics()) {
+            assertEquals(List.of(1, 2, 3, 7, 8), topics.map(Topic::getId).toList());
+        }
+        assertEquals(5, sharded.countTopics());
+    }
+
+    @Test
+    void insertsGetUniqueIdsAndGoToTheirShard() {
+        ListShard low = new ListShard();
+        ListShard high = new ListShard();
+        sharded = new ShardedTopicDao(List.of(low, high), ShardedTopicDao.Router.ranges(1, 4),
+                TopicIdAllocator.inFile(dir.resolve("topics.ids"), 2));
+
+        for (String name : List.of("a", "b", "c")) {
+            assertTrue(sharded.insertTopic(new Topic(name)));
+        }
+        BatchResult result = sharded.insertTopics(List.of(new Topic("d"), new Topic("e")));
+
+        assertTrue(result.isFullySuccessful());
+        assertEquals(List.of(1, 2, 3), ids(low.fetchAllTopics()));
+        assertEquals(List.of(4, 5), ids(high.fetchAllTopics()));
+    }
+
+    @Test
+    void hashRouterStaysInRangeAndSpreadsConsecutiveIds() {
+        ShardedTopicDao.Router router = ShardedTopicDao.Router.hash(3);
+        int[] perShard = new int[3];
+        for (int id = 1; id <= 3000; id++) {
+            perShard[router.shardOf(id)]++;
+        }
+        for (int count : perShard) {
+            assertTrue(count > 800 && count < 1200, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void rangeRouterUsesLowerBounds() {
+        ShardedTopicDao.Router router = ShardedTopicDao.Router.ranges(1, 1000, 2000);
+        assertEquals(0, router.shardOf(1));
+        assertEquals(0, router.shardOf(999));
+        assertEquals(1, router.shardOf(1000));
+        assertEquals(2, router.shardOf(5000));
+        assertThrows(IllegalArgumentException.class, () -> ShardedTopicDao.Router.ranges(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> ShardedTopicDao.Router.hash(0));
+    }
+
+    private ShardedTopicDao shardedOver(TopicDao... shards) {
+        return new ShardedTopicDao(List.of(shards), ShardedTopicDao.Router.hash(shards.length),
+                TopicIdAllocator.inFile(dir.resolve("topics.ids"), 10));
+    }
+
+    private static Topic topic(int id, String name) {
+        return new Topic(id, name, 0L, 0L);
+    }
+
+    private static List<Integer> ids(List<Topic> topics) {
+        return topics.stream().map(Topic::getId).toList();
+    }
+
+    /**
+     * A shard holding a plain list, returned in insertion order — NOT
+     * sorted, so the merge has to cope with that.
+     */
+    private static final class ListShard implements TopicDao {
+
+        private final List<Topic> topics = new ArrayList<>();
+
+        private ListShard(Topic... topics) {
+            this.topics.addAll(List.of(topics));
+        }
+
+        @Override
+        public synchronized boolean insertTopic(Topic topic) {
+            topics.add(topic);
+            return true;
+        }
+
+        @Override
+        public synchronized BatchResult insertTopics(Collection<Topic> batch) {
+            topics.addAll(batch);
+            BatchResult result = new BatchResult(batch.size());
+            result.recordInserted(batch.size());
+            return result;
+        }
+
+        @Override
+        public synchronized ArrayList<Topic> fetchAllTopics() {
+            return new ArrayList<>(topics);
+        }
+
+        @Override
+        public synchronized ArrayList<Topic> fetchTopicsAfter(int lastId, int limit) {
+            return new ArrayList<>(topics.stream()
+                    .filter(topic -> topic.getId() > lastId)
+                    .sorted((a, b) -> Integer.compare(a.getId(), b.getId()))
+                    .limit(limit)
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.learninglogs.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopicSearchIndexTest {
+
+    @Test
+    void scoreRanksExactThenPrefixThenWordThenInfix() {
+        assertEquals(4, TopicSearchIndex.score("java", "java"));
+        assertEquals(3, TopicSearchIndex.score("javascript", "java"));
+        assertEquals(2, TopicSearchIndex.score("learning java", "java"));
+        assertEquals(1, TopicSearchIndex.score("kava", "ava"));
+        assertEquals(0, TopicSearchIndex.score("python", "java"));
+    }
+
+    @Test
+    void anyNonLetterOrDigitStartsAWord() {
+        assertEquals(2, TopicSearchIndex.score("c++/java", "java"));
+        assertEquals(2, TopicSearchIndex.score("spring-java", "java"));
+        assertEquals(1, TopicSearchIndex.score("ajava", "java"));
+        assertEquals(1, TopicSearchIndex.score("2java", "java"));
+    }
+
+    @Test
+    void oneLetterQueriesOnlyMatchPrefixes() {
+        assertEquals(3, TopicSearchIndex.score("java", "j"));
+        assertEquals(0, TopicSearchIndex.score("learning java", "j"));
+        assertEquals(2, TopicSearchIndex.score("learning java", "ja"));
+    }
+
+    @Test
+    void searchRanksBestFirstThenShorterThenLowerId() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        index.add(1, "Learning Java");
+        index.add(2, "JavaScript");
+        index.add(3, "Java");
+        index.add(4, "Kava");
+        index.add(5, "Java Streams");
+        index.add(6, "x.java");
+
+        assertEquals(List.of(3, 2, 5, 6, 1), index.search("java", 10));
+        assertEquals(List.of(3, 2), index.search("JAVA", 2));
+        assertEquals(List.of(3, 4, 6, 2, 5, 1), index.search("av", 10));
+        assertEquals(List.of(3, 2, 5), index.search("j", 10));
+        assertEquals(List.of(), index.search("rust", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    void idsAddedOutOfOrderAreStillFound() {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, new Random(42));
+
+        TopicSearchIndex index = new TopicSearchIndex();
+        for (int id : ids) {
+            index.add(id, (id % 2 == 0 ? "java streams " : "python basics ") + id);
+        }
+
+        assertEquals(250, index.search("java stream", 1000).size());
+        assertEquals(250, index.search("basics", 1000).size());
+        assertEquals(500, index.size());
+    }
+
+    @Test
+    void repeatedTrigramsInOneNameCountOnce() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        index.add(2, "abcabc");
+        index.add(1, "abc abc abc");
+
+        assertEquals(List.of(2, 1), index.search("abc", 10));
+        assertEquals(List.of(2), index.search("cab", 10));
+    }
+
+    @Test
+    void twoLetterQueriesUseTheBigramsNotAScan() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        index.add(1, "Go");
+        index.add(2, "Django");
+        index.add(3, "Algorithms");
+        index.add(4, "Rust");
+
+        assertEquals(List.of(1, 2, 3), index.search("go", 10));
+        assertEquals(List.of(), index.search("zz", 10));
+    }
+
+    @Test
+    void removedTopicsAreNoLongerFound() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        index.add(1, "Java");
+        index.add(2, "JavaScript");
+        index.add(3, "Java");
+
+        index.remove(1);
+        index.remove(1);
+        index.remove(99);
+
+        assertEquals(List.of(3, 2), index.search("java", 10));
+        assertEquals(List.of(3, 2), index.search("av", 10));
+        assertEquals(List.of(3, 2), index.search("j", 10));
+        assertEquals(2, index.size());
+
+        index.remove(2);
+        index.remove(3);
+        assertEquals(List.of(), index.search("java", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void reAddingAnIdReplacesItsName() {
+        TopicSearchIndex index = new TopicSearchIndex();
+        index.add(1, "Java");
+        index.add(1, "Python");
+
+        assertEquals(List.of(), index.search("java", 10));
+        assertEquals(List.of(1), index.search("py", 10));
+        assertEquals(1, index.size());
+    }
+}
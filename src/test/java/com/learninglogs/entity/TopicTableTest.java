@@ -0,0 +1,60 @@
+package com.learninglogs.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The row view must read the same values a Topic copy would, straight
+ * from the arrays.
+ */
+class TopicTableTest {
+
+    @Test
+    void rowViewReadsEveryRowInPlace() {
+        TopicTable table = new TopicTable(1);
+        table.add(1, "Java", 10L, 20L);
+        table.add(2, null, Topic.NO_TIME, Topic.NO_TIME);
+        table.add(3, "Spring Boot", 30L, 40L);
+
+        List<String> names = new ArrayList<>();
+        TopicTable.Row first = null;
+        for (TopicTable.Row row : table) {
+            first = first == null ? row : first;
+            assertSame(first, row);
+            names.add(row.getId() + ":" + row.getName() + ":" + row.getUpdatedAtMillis());
+        }
+
+        assertEquals(List.of("1:Java:20", "2::" + Topic.NO_TIME, "3:Spring Boot:40"), names);
+    }
+
+    @Test
+    void rowNameIsACharSequenceOverTheArena() {
+        TopicTable table = new TopicTable();
+        table.add(7, "Kotlin", 0L, 0L);
+
+        TopicTable.Row row = table.iterator().next();
+        CharSequence name = row.getName();
+
+        assertEquals(6, name.length());
+        assertEquals('K', name.charAt(0));
+        assertEquals("otl", name.subSequence(1, 4).toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> name.charAt(6));
+        assertEquals(table.getTopic(0).toString(), row.toString());
+        assertEquals("Kotlin", row.toTopic().getName());
+    }
+
+    @Test
+    void iteratorStopsAfterTheLastRow() {
+        TopicTable table = new TopicTable();
+        assertFalse(table.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> table.iterator().next());
+    }
+}
@@ -0,0 +1,39 @@
+package com.learninglogs.io;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonLineTest {
+
+    @Test
+    void findsAFieldAfterOthersOfEveryKind() {
+        String line = "{\"id\": 12, \"tags\": [\"a\", {\"b\": \"}\"}], \"meta\": {\"name\": \"inner\"},"
+                + " \"ok\": true, \"name\": \"Java\"}";
+        assertEquals("Java", JsonLine.stringField(line, "name"));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("say \"hi\"\n\ttab \\ é",
+                JsonLine.stringField("{\"name\":\"say \\\"hi\\\"\\n\\ttab \\\\ \\u00e9\"}", "name"));
+        assertEquals("a/b", JsonLine.stringField("{\"name\":\"a\\/b\"}", "name"));
+    }
+
+    @Test
+    void missingOrNullFieldIsNull() {
+        assertNull(JsonLine.stringField("{}", "name"));
+        assertNull(JsonLine.stringField("{\"id\":1}", "name"));
+        assertNull(JsonLine.stringField("{\"name\":null}", "name"));
+    }
+
+    @Test
+    void rejectsWhatIsNotAnObject() {
+        assertThrows(IllegalArgumentException.class, () -> JsonLine.stringField("[1, 2]", "name"));
+        assertThrows(IllegalArgumentException.class, () -> JsonLine.stringField("{\"name\":\"open", "name"));
+        assertThrows(IllegalArgumentException.class, () -> JsonLine.stringField("{\"id\":1 \"name\":\"x\"}", "name"));
+        assertThrows(IllegalArgumentException.class, () -> JsonLine.stringField("{\"name\":\"\\u12\"}", "name"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.learninglogs.io;
+
+import com.learninglogs.entity.Topic;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Every name the exporter writes must come back unchanged through the
+ * importer's parser, in both formats.
+ */
+class TopicFormatTest {
+
+    private static final String[] AWKWARD_NAMES = {
+            "Java Basics",
+            "Commas, and \"quotes\"",
+            "  leading and trailing spaces  ",
+            "two\nlines",
+            "tab\tand backslash \\",
+            "Ñandú — ünïcödé",
+            "",
+    };
+
+    @Test
+    void csvRoundTripsAwkwardNames() throws IOException {
+        for (String name : AWKWARD_NAMES) {
+            String record = write(TopicFormat.CSV, new Topic(7, name, 0L, 0L));
+            // The importer hands over a record without its line break
+            String withoutNewline = record.substring(0, record.length() - 1);
+            assertEquals(name, TopicFormat.CSV.parseName(withoutNewline, 1), record);
+        }
+    }
+
+    @Test
+    void ndjsonRoundTripsAwkwardNames() throws IOException {
+        for (String name : AWKWARD_NAMES) {
+            String record = write(TopicFormat.NDJSON, new Topic(7, name, 0L, 0L));
+            assertEquals(name, TopicFormat.NDJSON.parseName(record.trim(), -1), record);
+        }
+    }
+
+    @Test
+    void csvWritesEmptyTimesForUnknownTimestamps() throws IOException {
+        assertEquals("3,Java,,\n", write(TopicFormat.CSV, new Topic(3, "Java", Topic.NO_TIME, Topic.NO_TIME)));
+    }
+
+    @Test
+    void csvFindsTheNameColumnInAHeader() {
+        assertEquals(1, TopicFormat.CSV.nameColumn("id,name,created_at,updated_at"));
+        assertEquals(0, TopicFormat.CSV.nameColumn("\"Name\""));
+        assertEquals(-1, TopicFormat.CSV.nameColumn("1,Java,,"));
+    }
+
+    @Test
+    void csvReadsAnyColumn() {
+        assertEquals("b", TopicFormat.CSV.parseName("a,b,c", 1));
+        assertEquals("c", TopicFormat.CSV.parseName("a,\"x,y\",c", 2));
+        assertEquals("", TopicFormat.CSV.parseName("a,,c", 1));
+    }
+
+    @Test
+    void csvRejectsMalformedRecords() {
+        assertThrows(IllegalArgumentException.class, () -> TopicFormat.CSV.parseName("1,\"open", 1));
+        assertThrows(IllegalArgumentException.class, () -> TopicFormat.CSV.parseName("1,\"a\"b", 1));
+        assertThrows(IllegalArgumentException.class, () -> TopicFormat.CSV.parseName("1,a", 3));
+    }
+
+    @Test
+    void formatComesFromTheExtension() {
+        assertSame(TopicFormat.CSV, TopicFormat.of(Path.of("topics.CSV")));
+        assertSame(TopicFormat.NDJSON, TopicFormat.of(Path.of("out/topics.ndjson")));
+        assertSame(TopicFormat.NDJSON, TopicFormat.of(Path.of("topics.jsonl")));
+        assertThrows(IllegalArgumentException.class, () -> TopicFormat.of(Path.of("topics.txt")));
+    }
+
+    private static String write(TopicFormat format, Topic topic) throws IOException {
+        StringBuilder out = new StringBuilder();
+        format.write(out, topic);
+        return out.toString();
+    }
+}
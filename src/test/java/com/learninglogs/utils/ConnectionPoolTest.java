@@ -0,0 +1,277 @@
+package com.learninglogs.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The pool against a fake driver ("jdbc:fake:"), so every physical
+ * connection can be inspected — and broken — from the test.
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:fake:pool";
+    /** Every physical connection the fake driver opened, oldest first. */
+    private static final List<FakeConnection> OPENED = new CopyOnWriteArrayList<>();
+
+    private ConnectionPool pool;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new FakeDriver());
+    }
+
+    @AfterEach
+    void close() {
+        if (pool != null) {
+            pool.close();
+        }
+        OPENED.clear();
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryConnectionIsInUse() throws SQLException {
+        pool = pool(1, 100, 60_000, 60_000);
+        pool.borrow();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, pool.getStats().getTimeoutCount());
+        assertEquals(1, OPENED.size());
+    }
+
+    @Test
+    void borrowWithADeadlineWaitsNoLongerThanIt() throws SQLException {
+        pool = pool(1, 30_000, 60_000, 60_000);
+        pool.borrow();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class,
+                () -> pool.borrow(start + TimeUnit.MILLISECONDS.toNanos(100)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void releasedConnectionGoesToTheWaiterNotToANewcomer() throws Exception {
+        pool = pool(1, 500, 60_000, 60_000);
+        Connection first = pool.borrow();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        while (pool.getStats().getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+
+        pool.release(first);
+        // Arrives after the waiter: must wait its turn, not take the connection
+        assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        Connection served = waiter.get(1, TimeUnit.SECONDS);
+        assertFalse(served.isClosed());
+        assertEquals(1, OPENED.size());
+    }
+
+    @Test
+    void brokenIdleConnectionIsReplacedOnBorrow() throws Exception {
+        pool = pool(2, 1_000, 60_000, 60_000);
+        pool.release(pool.borrow());
+        OPENED.get(0).valid = false;
+        // Past the window in which a recently used connection skips validation
+        Thread.sleep(600);
+
+        Connection connection = pool.borrow();
+        assertFalse(connection.isClosed());
+        assertEquals(2, OPENED.size());
+        assertTrue(OPENED.get(0).closed);
+        assertEquals(1, pool.getStats().getTotalDestroyed());
+    }
+
+    @Test
+    void idleConnectionsAreEvicted() throws Exception {
+        pool = new ConnectionPool(URL, "", "",
+                new ConnectionPool.Settings(2, 1_000, 50, 60_000, 1, 20));
+        pool.release(pool.borrow());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (pool.getStats().getIdle() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getStats().getIdle());
+        assertTrue(OPENED.get(0).closed);
+    }
+
+    @Test
+    void connectionOlderThanMaxLifetimeIsNotReused() throws Exception {
+        pool = pool(2, 1_000, 60_000, 100);
+        Connection old = pool.borrow();
+        Thread.sleep(150);
+        pool.release(old);
+
+        assertTrue(OPENED.get(0).closed);
+        assertEquals(0, pool.getStats().getIdle());
+        pool.borrow();
+        assertEquals(2, OPENED.size());
+    }
+
+    @Test
+    void releaseRollsBackAndRestoresAutoCommit() throws SQLException {
+        pool = pool(1, 1_000, 60_000, 60_000);
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        pool.release(connection);
+
+        FakeConnection physical = OPENED.get(0);
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+        assertTrue(pool.borrow().getAutoCommit());
+    }
+
+    @Test
+    void secondReleaseDoesNotTouchTheNextBorrower() throws SQLException {
+        pool = pool(1, 1_000, 60_000, 60_000);
+        Connection first = pool.borrow();
+        pool.release(first);
+        Connection second = pool.borrow();
+        assertNotSame(first, second);
+
+        pool.release(first);
+        first.close();
+
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, () -> first.setAutoCommit(false));
+        assertTrue(pool.owns(second));
+        assertSame(pool, ConnectionPool.lenderOf(second));
+        assertFalse(second.isClosed());
+        assertEquals(1, pool.getStats().getActive());
+        assertEquals(1, OPENED.size());
+    }
+
+    @Test
+    void connectionReleasedAfterCloseIsClosedForReal() throws SQLException {
+        pool = pool(2, 1_000, 60_000, 60_000);
+        Connection connection = pool.borrow();
+        pool.close();
+
+        pool.release(connection);
+
+        assertTrue(OPENED.get(0).closed);
+        assertEquals(0, pool.getStats().getIdle());
+        assertEquals(0, pool.getStats().getActive());
+        assertThrows(SQLException.class, pool::borrow);
+    }
+
+    private static ConnectionPool pool(int maxSize, long acquireTimeoutMs, long idleTimeoutMs,
+                                       long maxLifetimeMs) {
+        return new ConnectionPool(URL, "", "", new ConnectionPool.Settings(
+                maxSize, acquireTimeoutMs, idleTimeoutMs, maxLifetimeMs, 1, 60_000));
+    }
+
+    /** The state of one physical connection; its proxy answers from these fields. */
+    private static final class FakeConnection implements InvocationHandler {
+        private volatile boolean closed;
+        private volatile boolean valid = true;
+        private volatile boolean autoCommit = true;
+        private volatile int rollbacks;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return valid && !closed;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rollbacks++;
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "fake connection";
+                default:
+                    throw new SQLException("not supported by the fake driver: " + method.getName());
+            }
+        }
+    }
+
+    private static final class FakeDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            FakeConnection state = new FakeConnection();
+            OPENED.add(state);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, state);
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:fake:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}